@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tel.panfilov.maven.plugins.reposync.AbstractSyncMojo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansion of large artifact lists by {@link AbstractSyncMojo#addClassifiersAndPoms(List)}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AddClassifiersAndPomsBenchmark {
+
+    @Param({"100000"})
+    public int artifacts;
+
+    @Param({"false", "true"})
+    public boolean classifiers;
+
+    private List<Artifact> input;
+
+    private ExpandingMojo mojo;
+
+    @Setup
+    public void setUp() {
+        input = Fixtures.artifacts(artifacts, 200);
+        mojo = new ExpandingMojo(classifiers);
+    }
+
+    @Benchmark
+    public List<Artifact> addClassifiersAndPoms() {
+        return mojo.expand(input);
+    }
+
+    static class ExpandingMojo extends AbstractSyncMojo {
+
+        ExpandingMojo(boolean classifiers) {
+            this.syncSources = classifiers;
+            this.syncJavadoc = classifiers;
+        }
+
+        List<Artifact> expand(List<Artifact> artifacts) {
+            return addClassifiersAndPoms(artifacts);
+        }
+
+        @Override
+        protected List<Artifact> getExistingArtifacts() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
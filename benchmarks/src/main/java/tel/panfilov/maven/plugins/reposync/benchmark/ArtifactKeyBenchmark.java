@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplication of artifacts by id strings, as {@code Utils.getId} did, compared
+ * with {@link ArtifactKey}, run with {@code -prof gc} to see allocation rate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ArtifactKeyBenchmark {
+
+    @Param({"100000"})
+    public int artifacts;
+
+    private List<Artifact> input;
+
+    @Setup
+    public void setUp() {
+        // every artifact is seen twice
+        input = Fixtures.artifacts(artifacts / 2, 200);
+        input.addAll(Fixtures.artifacts(artifacts / 2, 200));
+    }
+
+    @Benchmark
+    public int idStrings() {
+        Set<String> seen = new HashSet<>();
+        for (Artifact artifact : input) {
+            seen.add(artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getClassifier()
+                    + ':' + artifact.getVersion() + ':' + artifact.getExtension());
+        }
+        return seen.size();
+    }
+
+    @Benchmark
+    public int keys() {
+        Set<ArtifactKey> seen = new HashSet<>();
+        for (Artifact artifact : input) {
+            seen.add(ArtifactKey.of(artifact));
+        }
+        return seen.size();
+    }
+
+    @Benchmark
+    public int canonicalKeys() {
+        Set<ArtifactKey> seen = new HashSet<>();
+        for (Artifact artifact : input) {
+            seen.add(ArtifactKey.of(artifact).canonical());
+        }
+        return seen.size();
+    }
+
+}
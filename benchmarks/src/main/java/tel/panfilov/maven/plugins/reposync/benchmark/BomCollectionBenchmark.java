@@ -0,0 +1,221 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
+import tel.panfilov.maven.plugins.reposync.cache.CollectionCache;
+import tel.panfilov.maven.plugins.reposync.component.DefaultDependencyCollector;
+import tel.panfilov.maven.plugins.reposync.component.DefaultScopeMediator;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collection of dependencies of BOM entries sharing layered libraries from file:// repository,
+ * either by graph per entry in {@code collectThreads} threads as by default, or by single graph.
+ * Local repository is populated by setup, so both modes read descriptors from local files
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class BomCollectionBenchmark {
+
+    private static final String SCOPE = "compile+runtime";
+
+    private static final int LEVELS = 4;
+
+    private static final int LIBRARIES = 50;
+
+    private static final int FANOUT = 3;
+
+    @Param({"200"})
+    public int entries;
+
+    @Param({"4"})
+    public int collectThreads;
+
+    @Param({"entries", "single"})
+    public String mode;
+
+    private Path source;
+
+    private Path local;
+
+    private DefaultRepositorySystemSession session;
+
+    private DefaultDependencyCollector collector;
+
+    private RemoteRepository repository;
+
+    private List<Dependency> managed;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        source = Fixtures.createTempDirectory("source");
+        local = Fixtures.createTempDirectory("local");
+        managed = layout(new Random(20221010L));
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        RepositorySystem system = locator.getService(RepositorySystem.class);
+
+        collector = new DefaultDependencyCollector();
+        inject(collector, "repoSystem", system);
+        inject(collector, "scopeMediator", new DefaultScopeMediator());
+
+        session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, new LocalRepository(local.toFile())));
+        repository = new RemoteRepository.Builder("source", "default", source.toUri().toString()).build();
+        executor = Executors.newFixedThreadPool(collectThreads);
+        collect();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        Fixtures.delete(source);
+        Fixtures.delete(local);
+    }
+
+    @Benchmark
+    public int collect() throws Exception {
+        DefaultRepositorySystemSession collectSession = new DefaultRepositorySystemSession(session);
+        collectSession.setCache(new CollectionCache(new DefaultRepositoryCache(), 10000));
+        if ("single".equals(mode)) {
+            CollectRequest request = new CollectRequest();
+            request.setRootArtifact(new DefaultArtifact("org.example:bom:pom:1.0"));
+            request.setDependencies(managed);
+            request.setManagedDependencies(managed);
+            request.setRepositories(Collections.singletonList(repository));
+            return collector.collectEntryDependencies(collectSession, request, 1, SCOPE).size();
+        }
+        List<Future<List<Artifact>>> futures = new ArrayList<>();
+        for (Dependency entry : managed) {
+            CollectRequest request = new CollectRequest();
+            request.setRoot(entry);
+            request.setManagedDependencies(managed);
+            request.setRepositories(Collections.singletonList(repository));
+            futures.add(executor.submit(() -> collector.collectDependencies(collectSession, request, 1, SCOPE)));
+        }
+        Set<ArtifactKey> seen = new HashSet<>();
+        for (Future<List<Artifact>> future : futures) {
+            for (Artifact artifact : future.get()) {
+                seen.add(ArtifactKey.of(artifact));
+            }
+        }
+        return seen.size();
+    }
+
+    /**
+     * Entries depend on libraries of the first level, libraries of every level have two
+     * versions and depend on libraries of the next level
+     *
+     * @return dependencies managed by BOM
+     */
+    private List<Dependency> layout(Random random) throws IOException {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < LIBRARIES; index++) {
+                for (int version = 0; version < 2; version++) {
+                    pom("library" + level + '-' + index, "1." + version, level + 1 < LEVELS ? dependencies(random, level + 1) : "");
+                }
+            }
+        }
+        List<Dependency> managed = new ArrayList<>(entries);
+        for (int index = 0; index < entries; index++) {
+            pom("entry" + index, "1.0", dependencies(random, 0));
+            managed.add(new Dependency(new DefaultArtifact("org.example", "entry" + index, "pom", "1.0"), "compile"));
+        }
+        return managed;
+    }
+
+    private String dependencies(Random random, int level) {
+        StringBuilder dependencies = new StringBuilder("<dependencies>");
+        for (int i = 0; i < FANOUT; i++) {
+            dependencies.append("<dependency><groupId>org.example</groupId>")
+                    .append("<artifactId>library").append(level).append('-').append(random.nextInt(LIBRARIES)).append("</artifactId>")
+                    .append("<version>1.").append(random.nextInt(2)).append("</version><type>pom</type></dependency>");
+        }
+        return dependencies.append("</dependencies>").toString();
+    }
+
+    private void pom(String artifactId, String version, String content) throws IOException {
+        Path file = source.resolve("org/example/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom");
+        Files.createDirectories(file.getParent());
+        String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>org.example</groupId>"
+                + "<artifactId>" + artifactId + "</artifactId><version>" + version + "</version>"
+                + "<packaging>pom</packaging>" + content + "</project>";
+        Files.write(file, pom.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+}
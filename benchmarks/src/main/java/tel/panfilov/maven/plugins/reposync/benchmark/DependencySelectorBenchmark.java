@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.Exclusion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tel.panfilov.maven.plugins.reposync.selector.AndDependencySelector;
+import tel.panfilov.maven.plugins.reposync.selector.ExclusionDependencySelector;
+import tel.panfilov.maven.plugins.reposync.selector.OptionalDependencySelector;
+import tel.panfilov.maven.plugins.reposync.selector.ScopeDependencySelector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traversal of deep dependency graph by selectors the plugin collects dependencies with
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DependencySelectorBenchmark {
+
+    private static final String[] SCOPES = {"compile", "compile", "runtime", "provided", "test"};
+
+    @Param({"8"})
+    public int depth;
+
+    @Param({"4"})
+    public int fanout;
+
+    private Node root;
+
+    private DependencySelector selector;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(20221010L);
+        root = node(random, 0, 0);
+        selector = new AndDependencySelector(
+                new OptionalDependencySelector(0),
+                new ScopeDependencySelector(0, null, Collections.singletonList("test")),
+                new ExclusionDependencySelector()
+        );
+    }
+
+    @Benchmark
+    public int traverse() {
+        return traverse(selector, root);
+    }
+
+    private static int traverse(DependencySelector selector, Node node) {
+        DependencySelector child = selector.deriveChildSelector(new Context(node.dependency));
+        int selected = 1;
+        for (Node dependency : node.dependencies) {
+            if (child.selectDependency(dependency.dependency)) {
+                selected += traverse(child, dependency);
+            }
+        }
+        return selected;
+    }
+
+    private Node node(Random random, int level, int index) {
+        Artifact artifact = new DefaultArtifact("org.example.level" + level, "artifact" + index, "jar", "1.0");
+        List<Exclusion> exclusions = new ArrayList<>();
+        if (random.nextInt(4) == 0) {
+            exclusions.add(new Exclusion("org.example.level" + (level + 2), "artifact" + random.nextInt(fanout), "*", "*"));
+        }
+        Dependency dependency = new Dependency(artifact, SCOPES[random.nextInt(SCOPES.length)],
+                random.nextInt(8) == 0, exclusions);
+        Node node = new Node(dependency);
+        if (level < depth) {
+            for (int i = 0; i < fanout; i++) {
+                node.dependencies.add(node(random, level + 1, index * fanout + i));
+            }
+        }
+        return node;
+    }
+
+    static class Node {
+
+        final Dependency dependency;
+
+        final List<Node> dependencies = new ArrayList<>();
+
+        Node(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+    }
+
+    static class Context implements DependencyCollectionContext {
+
+        private final Dependency dependency;
+
+        Context(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        @Override
+        public RepositorySystemSession getSession() {
+            return null;
+        }
+
+        @Override
+        public Artifact getArtifact() {
+            return dependency.getArtifact();
+        }
+
+        @Override
+        public Dependency getDependency() {
+            return dependency;
+        }
+
+        @Override
+        public List<Dependency> getManagedDependencies() {
+            return Collections.emptyList();
+        }
+
+    }
+
+}
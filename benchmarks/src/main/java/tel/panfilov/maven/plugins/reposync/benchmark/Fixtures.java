@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic fixtures, generated from fixed seed, so results are comparable across commits
+ */
+final class Fixtures {
+
+    private static final long SEED = 20221010L;
+
+    private static final String[] EXTENSIONS = {"jar", "jar", "jar", "war", "pom"};
+
+    private Fixtures() {
+        super();
+    }
+
+    /**
+     * @return artifacts of {@code groups} groups, every group has {@code count / groups} artifacts
+     */
+    static List<Artifact> artifacts(int count, int groups) {
+        Random random = new Random(SEED);
+        List<Artifact> artifacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String groupId = "org.example.group" + (i % groups);
+            String artifactId = "artifact" + (i / groups);
+            String version = "1." + random.nextInt(10) + '.' + random.nextInt(10);
+            String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            artifacts.add(new DefaultArtifact(groupId, artifactId, "", extension, version));
+        }
+        return artifacts;
+    }
+
+    /**
+     * Lays out files of artifacts in repository directory along with checksum sidecars
+     */
+    static void repository(Path directory, List<Artifact> artifacts) throws IOException {
+        for (Artifact artifact : artifacts) {
+            Path dir = directory.resolve(artifact.getGroupId().replace('.', '/'))
+                    .resolve(artifact.getArtifactId())
+                    .resolve(artifact.getBaseVersion());
+            Files.createDirectories(dir);
+            String name = artifact.getArtifactId() + '-' + artifact.getVersion();
+            write(dir.resolve(name + '.' + artifact.getExtension()), artifact.toString());
+            write(dir.resolve(name + '.' + artifact.getExtension() + ".sha1"), "0000000000000000000000000000000000000000");
+            if (!"pom".equals(artifact.getExtension())) {
+                write(dir.resolve(name + ".pom"), "<project/>");
+            }
+        }
+    }
+
+    static Path createTempDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory("reposync-" + prefix);
+    }
+
+    static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,150 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.impl.OfflineController;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tel.panfilov.maven.plugins.reposync.component.DefaultRepositoryArtifactChecker;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Existence checks of artifacts in HTTP target repository containing half of them
+ * by {@link DefaultRepositoryArtifactChecker}, every request takes {@code latency}
+ * milliseconds, so the time is bound by number of requests in flight
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class HttpRepositoryArtifactCheckerBenchmark {
+
+    @Param({"1000"})
+    public int artifacts;
+
+    @Param({"20"})
+    public long latency;
+
+    @Param({"8", "64"})
+    public int repositoryThreads;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private Path target;
+
+    private LatencyServer server;
+
+    private Path local;
+
+    private DefaultRepositoryArtifactChecker checker;
+
+    private DefaultRepositorySystemSession session;
+
+    private List<ArtifactRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        target = Fixtures.createTempDirectory("target");
+        local = Fixtures.createTempDirectory("local");
+        List<Artifact> checked = Fixtures.artifacts(artifacts, 50);
+        Fixtures.repository(target, checked.subList(0, artifacts / 2));
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+        server = new LatencyServer(target, latency);
+
+        checker = new DefaultRepositoryArtifactChecker();
+        inject(checker, "versionResolver", locator.getService(VersionResolver.class));
+        inject(checker, "repositoryConnectorProvider", locator.getService(RepositoryConnectorProvider.class));
+        inject(checker, "remoteRepositoryManager", locator.getService(RemoteRepositoryManager.class));
+        inject(checker, "offlineController", locator.getService(OfflineController.class));
+
+        session = MavenRepositorySystemUtils.newSession();
+        RepositorySystem system = locator.getService(RepositorySystem.class);
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, new LocalRepository(local.toFile())));
+        // platform threads are enough to keep every repository thread busy
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_THREADS, repositoryThreads);
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_REPOSITORY_THREADS, repositoryThreads);
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_VIRTUAL_THREADS, virtualThreads);
+
+        RemoteRepository repository = new RemoteRepository.Builder("target", "default", server.getUrl()).build();
+        requests = new ArrayList<>(artifacts);
+        for (Artifact artifact : checked) {
+            requests.add(new ArtifactRequest(artifact, Collections.singletonList(repository), null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        server.close();
+        Fixtures.delete(target);
+        Fixtures.delete(local);
+    }
+
+    @Benchmark
+    public List<ArtifactResult> check() {
+        return checker.checkArtifacts(session, false, requests);
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+}
@@ -0,0 +1,85 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.benchmark;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tel.panfilov.maven.plugins.reposync.component.LocalRepositoryScanner;
+import tel.panfilov.maven.plugins.reposync.component.LocalRepositoryVisitor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan of generated local repository tree by {@link LocalRepositoryScanner},
+ * repository is walked by single {@link LocalRepositoryVisitor} if parallelism is 1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class LocalRepositoryScanBenchmark {
+
+    /**
+     * Every artifact takes 2.8 files on average, so the largest tree holds about 1M files
+     */
+    @Param({"10000", "360000"})
+    public int artifacts;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Path repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        repository = Fixtures.createTempDirectory("scan");
+        Fixtures.repository(repository, Fixtures.artifacts(artifacts, 50));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.delete(repository);
+    }
+
+    @Benchmark
+    public Set<Artifact> scanner() throws IOException {
+        return new LocalRepositoryScanner(repository, false, new SystemStreamLog(), parallelism).scan();
+    }
+
+}
@@ -83,6 +83,11 @@ public abstract class AbstractCLISyncMojo extends AbstractSyncMojo {
         return coordinate;
     }
 
+    @Override
+    protected String getJournalKey() throws MojoFailureException {
+        org.apache.maven.model.Dependency coordinate = getCoordinate();
+        return super.getJournalKey() + ' ' + coordinate.getManagementKey() + ':' + coordinate.getVersion();
+    }
 
     /**
      * @param groupId The groupId.
@@ -28,9 +28,6 @@ import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
 import org.apache.maven.artifact.repository.MavenArtifactRepository;
 import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.model.DependencyManagement;
-import org.apache.maven.model.Model;
-import org.apache.maven.model.Parent;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -44,15 +41,16 @@ import org.apache.maven.settings.Settings;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.collection.DependencyCollectionException;
-import org.eclipse.aether.deployment.DeployRequest;
-import org.eclipse.aether.deployment.DeploymentException;
 import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.impl.ArtifactDescriptorReader;
 import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.resolution.ArtifactDescriptorException;
 import org.eclipse.aether.resolution.ArtifactDescriptorPolicy;
@@ -61,19 +59,44 @@ import org.eclipse.aether.resolution.ArtifactDescriptorResult;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
 import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.util.listener.ChainedRepositoryListener;
+import org.eclipse.aether.util.listener.ChainedTransferListener;
+import tel.panfilov.maven.plugins.reposync.cache.CollectionCache;
+import tel.panfilov.maven.plugins.reposync.cache.DownloadSpool;
+import tel.panfilov.maven.plugins.reposync.cache.SyncJournal;
+import tel.panfilov.maven.plugins.reposync.cache.TargetInventory;
+import tel.panfilov.maven.plugins.reposync.component.ArtifactChecksumMismatchException;
+import tel.panfilov.maven.plugins.reposync.component.ArtifactChecksumUnverifiableException;
+import tel.panfilov.maven.plugins.reposync.component.DefaultRepositoryArtifactChecker;
 import tel.panfilov.maven.plugins.reposync.component.DependencyCollector;
 import tel.panfilov.maven.plugins.reposync.component.ModelAwareArtifactDescriptorReader;
+import tel.panfilov.maven.plugins.reposync.component.PomReferences;
 import tel.panfilov.maven.plugins.reposync.component.RepositoryArtifactChecker;
 import tel.panfilov.maven.plugins.reposync.component.ScopeMediator;
+import tel.panfilov.maven.plugins.reposync.limiter.AdaptiveLimiter;
+import tel.panfilov.maven.plugins.reposync.limiter.LimitingTransferListener;
+import tel.panfilov.maven.plugins.reposync.metrics.PhaseMetrics;
+import tel.panfilov.maven.plugins.reposync.metrics.SyncMetrics;
+import tel.panfilov.maven.plugins.reposync.pipeline.ArtifactPipeline;
+import tel.panfilov.maven.plugins.reposync.pipeline.BatchDeployer;
+import tel.panfilov.maven.plugins.reposync.pipeline.StreamingTransfer;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -91,6 +114,9 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
     @Component
     protected RepositoryArtifactChecker repositoryArtifactChecker;
 
+    @Component(hint = "metadata")
+    protected RepositoryArtifactChecker metadataArtifactChecker;
+
     @Component
     protected ArtifactHandlerManager artifactHandlerManager;
 
@@ -118,6 +144,12 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
     @Component
     protected ScopeMediator scopeMediator;
 
+    @Component
+    protected TransporterProvider transporterProvider;
+
+    @Component
+    protected RepositoryLayoutProvider repositoryLayoutProvider;
+
     /**
      *
      */
@@ -168,55 +200,714 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
     @Parameter(property = "useSettingsRepositories", defaultValue = "false")
     protected boolean useSettingsRepositories = false;
 
+    /**
+     * Number of threads used to check existence of artifacts in source and target repositories
+     */
+    @Parameter(property = "checkThreads", defaultValue = "4")
+    protected int checkThreads = 4;
+
+    /**
+     * Maximum number of existence check requests in flight against the same repository,
+     * every check thread makes single request at a time
+     */
+    @Parameter(property = "checkRepositoryThreads", defaultValue = "2")
+    protected int checkRepositoryThreads = 2;
+
+    /**
+     * Limit number of concurrent requests to every repository by adaptive window, which
+     * starts at checkRepositoryThreads, grows while requests succeed and halves on
+     * throttling responses, timeouts and slow requests
+     */
+    @Parameter(property = "adaptiveConcurrency", defaultValue = "false")
+    protected boolean adaptiveConcurrency = false;
+
+    /**
+     * Maximum number of concurrent requests to the same repository when adaptiveConcurrency is used
+     */
+    @Parameter(property = "maxRepositoryConcurrency", defaultValue = "16")
+    protected int maxRepositoryConcurrency = 16;
+
+    /**
+     * Requests taking longer than specified number of milliseconds shrink adaptive concurrency window
+     */
+    @Parameter(property = "slowRequestThreshold", defaultValue = "5000")
+    protected long slowRequestThreshold = 5000;
+
+    /**
+     * Run existence checks, pom loading, dependency collection and transfers in virtual
+     * threads on Java 21 and newer, thread counts still limit concurrency but may be
+     * set much higher, existence checks are limited by checkRepositoryThreads only,
+     * platform threads are used on older versions
+     */
+    @Parameter(property = "virtualThreads", defaultValue = "false")
+    protected boolean virtualThreads = false;
+
+    /**
+     * Stream artifacts through check, download and deploy stages in batches
+     * instead of waiting for every stage to complete for the whole artifact list
+     */
+    @Parameter(property = "pipeline", defaultValue = "false")
+    protected boolean pipeline = false;
+
+    /**
+     * Approximate number of artifacts in a single pipeline batch,
+     * artifacts of the same version are always kept together
+     */
+    @Parameter(property = "pipelineBatchSize", defaultValue = "50")
+    protected int pipelineBatchSize = 50;
+
+    /**
+     * Maximum number of batches waiting for every pipeline stage
+     */
+    @Parameter(property = "pipelineQueueSize", defaultValue = "4")
+    protected int pipelineQueueSize = 4;
+
+    /**
+     * Number of pipeline workers checking target repository
+     */
+    @Parameter(property = "pipelineCheckWorkers", defaultValue = "1")
+    protected int pipelineCheckWorkers = 1;
+
+    /**
+     * Number of pipeline workers downloading missing artifacts
+     */
+    @Parameter(property = "pipelineDownloadWorkers", defaultValue = "2")
+    protected int pipelineDownloadWorkers = 2;
+
+    /**
+     * Number of pipeline workers deploying downloaded artifacts
+     */
+    @Parameter(property = "pipelineDeployWorkers", defaultValue = "1")
+    protected int pipelineDeployWorkers = 1;
+
+    /**
+     * Approximate number of artifacts deployed by a single request,
+     * artifacts of the same version are always deployed together
+     */
+    @Parameter(property = "deployBatchSize", defaultValue = "50")
+    protected int deployBatchSize = 50;
+
+    /**
+     * Number of concurrently deployed batches
+     */
+    @Parameter(property = "deployThreads", defaultValue = "1")
+    protected int deployThreads = 1;
+
+    /**
+     * Number of retries of failed batch deployment
+     */
+    @Parameter(property = "deployRetries", defaultValue = "2")
+    protected int deployRetries = 2;
+
+    /**
+     * Remember artifacts found in target repository and do not check them again in subsequent runs
+     */
+    @Parameter(property = "inventory", defaultValue = "false")
+    protected boolean inventory = false;
+
+    /**
+     * Directory to store information about artifacts found in target repositories
+     */
+    @Parameter(property = "inventoryDirectory", defaultValue = "${user.home}/.m2/reposync")
+    protected File inventoryDirectory;
+
+    /**
+     * Time in seconds snapshot artifacts found in target repository are remembered for,
+     * snapshots are not remembered if the value is not positive
+     */
+    @Parameter(property = "inventorySnapshotTtl", defaultValue = "0")
+    protected long inventorySnapshotTtl = 0;
+
+    /**
+     * Forget artifacts remembered in previous runs
+     */
+    @Parameter(property = "inventoryRefresh", defaultValue = "false")
+    protected boolean inventoryRefresh = false;
+
+    /**
+     * Record progress in a journal, so interrupted run is resumed without
+     * repeating discovery, checks, downloads and deploys completed before
+     */
+    @Parameter(property = "journal", defaultValue = "false")
+    protected boolean journal = false;
+
+    /**
+     * Directory to store journals of interrupted runs
+     */
+    @Parameter(property = "journalDirectory", defaultValue = "${user.home}/.m2/reposync")
+    protected File journalDirectory;
+
+    /**
+     * Number of journal records written between flushes to disk,
+     * every record is flushed if the value is not positive
+     */
+    @Parameter(property = "journalSyncInterval", defaultValue = "64")
+    protected int journalSyncInterval = 64;
+
+    /**
+     * Download missing artifacts into spool directory instead of local repository,
+     * downloaded files are deleted once deployed
+     */
+    @Parameter(property = "spool", defaultValue = "false")
+    protected boolean spool = false;
+
+    /**
+     * Directory to store downloaded files in, files are named after their checksums
+     */
+    @Parameter(property = "spoolDirectory", defaultValue = "${user.home}/.m2/reposync/spool")
+    protected File spoolDirectory;
+
+    /**
+     * Maximum size of spool directory in megabytes, missing artifacts are
+     * downloaded and deployed in rounds of one batch per deploy thread, so files
+     * are not evicted before they get deployed, least recently used files left by
+     * interrupted runs are evicted first
+     */
+    @Parameter(property = "spoolMaxSize", defaultValue = "10240")
+    protected long spoolMaxSize = 10240;
+
+    /**
+     * Transfer missing release artifacts other than poms from source repositories
+     * to target one in memory, bypassing local repository and spool, artifacts are
+     * transferred once poms of their versions get deployed
+     */
+    @Parameter(property = "stream", defaultValue = "false")
+    protected boolean stream = false;
+
+    /**
+     * Maximum size in megabytes of memory shared by artifacts transferred in
+     * memory, artifacts not fitting into memory are downloaded and deployed as usual
+     */
+    @Parameter(property = "streamMaxSize", defaultValue = "64")
+    protected long streamMaxSize = 64;
+
+    /**
+     * Use copies of missing release artifacts found in local repository instead of
+     * downloading them if their checksums match checksums published by source repositories
+     */
+    @Parameter(property = "reuseLocalArtifacts", defaultValue = "false")
+    protected boolean reuseLocalArtifacts = false;
+
+    /**
+     * Use maven-metadata.xml of target repository to find out missing versions
+     * by single request per groupId:artifactId and directory listing of target
+     * repository to find out missing files by single request per version instead
+     * of checking every artifact, poms of versions not listed in metadata are
+     * checked to not redeploy them; when target repository does not provide
+     * listings, artifacts of versions listed in metadata are considered present
+     */
+    @Parameter(property = "checkTargetMetadata", defaultValue = "false")
+    protected boolean checkTargetMetadata = false;
+
+    /**
+     * Checksum algorithm (sha1, sha256, sha512 or md5) used to check existence of artifacts
+     * in target repository by downloading checksum sidecars, which are compared with
+     * checksums of local copies of artifacts or checksum sidecars published by source
+     * repositories, artifacts with different or unverifiable checksums are synchronised again
+     */
+    @Parameter(property = "checkTargetChecksum")
+    protected String checkTargetChecksum;
+
+    /**
+     * Number of threads loading parent and imported poms
+     */
+    @Parameter(property = "pomThreads", defaultValue = "4")
+    protected int pomThreads = 4;
+
+    /**
+     * Number of threads collecting dependency graphs
+     */
+    @Parameter(property = "collectThreads", defaultValue = "4")
+    protected int collectThreads = 4;
+
+    /**
+     * Maximum number of artifact descriptors cached across dependency collections,
+     * cache of maven session is used as is if the value is not positive
+     */
+    @Parameter(property = "collectCacheSize", defaultValue = "10000")
+    protected int collectCacheSize = 10000;
+
+    /**
+     * File to write timing and throughput metrics to in JSON format
+     */
+    @Parameter(property = "metricsFile")
+    protected File metricsFile;
+
+    /**
+     * Transfers taking longer than specified number of milliseconds are reported as slow
+     */
+    @Parameter(property = "slowTransferThreshold", defaultValue = "10000")
+    protected long slowTransferThreshold = 10000;
+
     protected List<RemoteRepository> source;
 
     protected RemoteRepository target;
 
+    protected RepositorySystemSession repositorySession;
+
+    protected TargetInventory targetInventory;
+
+    protected SyncJournal syncJournal;
+
+    protected volatile DownloadSpool downloadSpool;
+
+    protected RepositorySystemSession downloadSession;
+
+    protected CollectionCache collectionCache;
+
+    protected LimitingTransferListener limitingTransferListener;
+
+    protected final SyncMetrics metrics = new SyncMetrics();
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
-        Log log = getLog();
+        boolean completed = false;
         try {
-            log.info("Source repositories: " + getSourceRepositories());
-            log.info("Target repository: " + getTargetRepository());
-            List<Artifact> discovered = getExistingArtifacts();
-            log.info("Discovered " + discovered.size() + " artifacts");
-            for (Artifact artifact : discovered) {
-                log.info("\t" + artifact);
+            synchronise();
+            completed = true;
+        } finally {
+            closeJournal(completed);
+            saveInventory();
+            reportCollectionCache();
+            reportConcurrencyLimits();
+            reportMetrics();
+        }
+    }
+
+    protected void synchronise() throws MojoExecutionException, MojoFailureException {
+        Log log = getLog();
+        log.info("Source repositories: " + getSourceRepositories());
+        log.info("Target repository: " + getTargetRepository());
+        getTargetInventory();
+        SyncJournal journal = getSyncJournal();
+        List<Artifact> discovered = journal == null ? null : journal.getDiscovered();
+        long started;
+        if (discovered == null) {
+            PhaseMetrics discovery = metrics.phase("discovery");
+            started = discovery.begin();
+            try {
+                discovered = getExistingArtifacts();
+                discovery.addArtifacts(discovered.size());
+            } finally {
+                discovery.end(started);
             }
+            journalDiscovered(discovered);
+        } else {
+            log.info("Resuming interrupted run recorded in " + journal.getFile());
+        }
+        log.info("Discovered " + discovered.size() + " artifacts");
+        for (Artifact artifact : discovered) {
+            log.info("\t" + artifact);
+        }
+
+        if (discovered.isEmpty()) {
+            log.info("Nothing to sync, exiting");
+            return;
+        }
+
+        if (pipeline && !dryRun) {
+            syncArtifacts(discovered);
+            return;
+        }
 
-            if (discovered.isEmpty()) {
-                log.info("Nothing to sync, exiting");
+        List<Artifact> missing = getMissingArtifacts(discovered);
+        log.info("Found " + missing.size() + " missing artifacts");
+        for (Artifact artifact : missing) {
+            log.info("\t" + artifact);
+        }
+
+        if (missing.isEmpty()) {
+            log.info("Nothing to sync, exiting");
+            return;
+        }
+
+        if (dryRun) {
+            log.info("Dry run, exiting");
+            return;
+        }
+
+        if (stream) {
+            // poms are deployed first, so metadata references streamed files
+            List<Artifact> streamable = getStreamableArtifacts(missing);
+            deployMissingArtifacts(Utils.without(missing, streamable));
+            log.info("Streaming missing artifacts");
+            missing = streamMissingArtifacts(Utils.partition(streamable, deployBatchSize), deployThreads);
+            if (missing.isEmpty()) {
                 return;
             }
+        }
 
-            List<Artifact> missing = getMissingArtifacts(discovered);
-            log.info("Found " + missing.size() + " missing artifacts");
-            for (Artifact artifact : missing) {
-                log.info("\t" + artifact);
+        deployMissingArtifacts(missing);
+    }
+
+    /**
+     * Downloads and deploys missing artifacts, when spool is used artifacts are processed in rounds
+     * of one batch per deploy thread, so files downloaded are deployed before the next round starts
+     * and never get evicted from spool
+     */
+    protected void deployMissingArtifacts(List<Artifact> missing) throws MojoFailureException, MojoExecutionException {
+        Log log = getLog();
+        boolean spooled = getDownloadSpool() != null;
+        List<List<Artifact>> rounds = spooled
+                ? Utils.partition(missing, deployBatchSize * deployThreads)
+                : Collections.singletonList(missing);
+        PhaseMetrics deploy = metrics.phase("deploy");
+        BatchDeployer deployer = getBatchDeployer();
+        try {
+            for (List<Artifact> round : rounds) {
+                log.info("Downloading missing artifacts");
+                List<Artifact> downloaded = downloadMissingArtifacts(round, spooled).stream()
+                        .map(ArtifactResult::getArtifact)
+                        .collect(Collectors.toList());
+
+                log.info("Deploying missing artifacts");
+                long started = deploy.begin();
+                try {
+                    long bytes = Utils.getSize(downloaded);
+                    deployer.deploy(Utils.partition(downloaded, deployBatchSize), deployThreads);
+                    deploy.addArtifacts(downloaded.size());
+                    deploy.addBytes(bytes);
+                } finally {
+                    deploy.end(started);
+                }
+                if (targetInventory != null) {
+                    downloaded.forEach(targetInventory::add);
+                }
             }
+        } finally {
+            deploy.addRetries(deployer.getRetries());
+        }
+    }
 
-            if (missing.isEmpty()) {
-                log.info("Nothing to sync, exiting");
-                return;
+    protected abstract List<Artifact> getExistingArtifacts() throws MojoFailureException, MojoExecutionException;
+
+    protected void syncArtifacts(List<Artifact> artifacts) throws MojoFailureException, MojoExecutionException {
+        Log log = getLog();
+        log.info("Synchronising artifacts in batches of " + pipelineBatchSize);
+        BatchDeployer deployer = getBatchDeployer();
+        ArtifactPipeline artifactPipeline = new ArtifactPipeline(pipelineQueueSize)
+                .setVirtualThreads(virtualThreads)
+                .addStage("check", pipelineCheckWorkers, batch -> {
+                    List<Artifact> missing = getMissingArtifacts(batch);
+                    for (Artifact artifact : missing) {
+                        log.info("\tmissing " + artifact);
+                    }
+                    return missing;
+                })
+                .addStage("download", pipelineDownloadWorkers, batch -> {
+                    // streamable artifacts are passed as is to be streamed once poms get deployed
+                    List<Artifact> streamable = getStreamableArtifacts(batch);
+                    List<Artifact> downloaded = downloadPipelined(Utils.without(batch, streamable));
+                    downloaded.addAll(streamable);
+                    return downloaded;
+                })
+                .addStage("deploy", pipelineDeployWorkers, batch -> {
+                    List<Artifact> streamable = getStreamableArtifacts(batch);
+                    deployPipelined(deployer, Utils.without(batch, streamable));
+                    if (!streamable.isEmpty()) {
+                        List<Artifact> remaining = streamMissingArtifacts(Collections.singletonList(streamable), 1);
+                        deployPipelined(deployer, downloadPipelined(remaining));
+                    }
+                    return batch;
+                });
+        List<Artifact> deployed;
+        try {
+            deployed = artifactPipeline.execute(Utils.partition(artifacts, pipelineBatchSize));
+        } finally {
+            metrics.phase("deploy").addRetries(deployer.getRetries());
+        }
+        log.info("Deployed " + deployed.size() + " missing artifacts");
+    }
+
+    /**
+     * @return artifacts which are streamed if streaming is enabled
+     */
+    protected List<Artifact> getStreamableArtifacts(List<Artifact> artifacts) {
+        if (!stream) {
+            return Collections.emptyList();
+        }
+        return artifacts.stream()
+                .filter(StreamingTransfer::isStreamable)
+                .collect(Collectors.toList());
+    }
+
+    protected List<Artifact> downloadPipelined(List<Artifact> artifacts) throws MojoFailureException, MojoExecutionException {
+        if (artifacts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // files waiting in queue for deploy stage must not be evicted
+        return downloadMissingArtifacts(artifacts, getDownloadSpool() != null)
+                .stream()
+                .map(ArtifactResult::getArtifact)
+                .collect(Collectors.toList());
+    }
+
+    protected void deployPipelined(BatchDeployer deployer, List<Artifact> batch) throws MojoExecutionException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        PhaseMetrics deploy = metrics.phase("deploy");
+        long started = deploy.begin();
+        try {
+            long bytes = Utils.getSize(batch);
+            deployer.deploy(batch);
+            deploy.addArtifacts(batch.size());
+            deploy.addBytes(bytes);
+        } finally {
+            deploy.end(started);
+        }
+        if (targetInventory != null) {
+            batch.forEach(targetInventory::add);
+        }
+        for (Artifact artifact : batch) {
+            getLog().info("\tdeployed " + artifact);
+        }
+    }
+
+    protected BatchDeployer getBatchDeployer() throws MojoFailureException {
+        return new BatchDeployer(repoSystem, getRepositorySession(), getTargetRepository(), deployRetries, getLog())
+                .setTrace(newTrace("deploy"))
+                .setVirtualThreads(virtualThreads)
+                .setListener(new BatchDeployer.Listener() {
+                    @Override
+                    public List<Artifact> deploying(List<Artifact> artifacts) throws MojoExecutionException {
+                        return pinSpooled(artifacts);
+                    }
+
+                    @Override
+                    public void deployed(List<Artifact> artifacts) throws MojoExecutionException {
+                        journalDeployed(artifacts);
+                        releaseSpooled(artifacts);
+                    }
+                });
+    }
+
+    protected TargetInventory getTargetInventory() throws MojoFailureException, MojoExecutionException {
+        if (targetInventory == null && inventory) {
+            try {
+                TargetInventory loaded = new TargetInventory(inventoryDirectory.toPath(), getTargetRepository(), inventorySnapshotTtl);
+                if (inventoryRefresh) {
+                    loaded.clear();
+                } else {
+                    loaded.load();
+                }
+                getLog().info("Loaded " + loaded.size() + " artifacts known to be present in target repository");
+                targetInventory = loaded;
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Failed to load inventory of target repository", ex);
             }
+        }
+        return targetInventory;
+    }
 
-            if (dryRun) {
-                log.info("Dry run, exiting");
-                return;
+    protected SyncJournal getSyncJournal() throws MojoFailureException, MojoExecutionException {
+        if (syncJournal == null && journal && !dryRun) {
+            try {
+                syncJournal = new SyncJournal(journalDirectory.toPath(), getJournalKey(), journalSyncInterval).load();
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Failed to load sync journal", ex);
             }
+        }
+        return syncJournal;
+    }
 
-            log.info("Downloading missing artifacts");
-            List<ArtifactResult> result = downloadMissingArtifacts(missing);
+    /**
+     * @return spool storing downloaded files if spool is used
+     */
+    protected synchronized DownloadSpool getDownloadSpool() throws MojoExecutionException {
+        if (downloadSpool == null && spool && !dryRun) {
+            try {
+                downloadSpool = new DownloadSpool(spoolDirectory.toPath(), spoolMaxSize * 1024 * 1024).load();
+            } catch (IOException ex) {
+                throw new MojoExecutionException("Failed to load download spool", ex);
+            }
+        }
+        return downloadSpool;
+    }
 
-            log.info("Deploying missing artifacts");
-            repoSystem.deploy(session.getRepositorySession(), createDeployRequest(result));
+    /**
+     * @return session downloading artifacts into spool directory if spool is used
+     */
+    protected synchronized RepositorySystemSession getDownloadSession() throws MojoExecutionException {
+        DownloadSpool spool = getDownloadSpool();
+        if (spool == null) {
+            return getRepositorySession();
+        }
+        if (downloadSession == null) {
+            DefaultRepositorySystemSession derived = new DefaultRepositorySystemSession(getRepositorySession());
+            LocalRepository incoming = new LocalRepository(spool.getIncomingDirectory().toFile(), "simple");
+            derived.setLocalRepositoryManager(repoSystem.newLocalRepositoryManager(derived, incoming));
+            downloadSession = derived;
+        }
+        return downloadSession;
+    }
 
-        } catch (DeploymentException ex) {
-            throw new MojoExecutionException("Couldn't deploy artifacts", ex);
+    /**
+     * Protects spooled files of artifacts from eviction, evicted files are downloaded again
+     */
+    protected List<Artifact> pinSpooled(List<Artifact> artifacts) throws MojoExecutionException {
+        if (downloadSpool == null) {
+            return artifacts;
+        }
+        Map<ArtifactKey, Artifact> pinned = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            pinned.put(ArtifactKey.of(artifact), artifact);
         }
+        List<Artifact> evicted = artifacts.stream()
+                .filter(a -> !downloadSpool.pin(a))
+                .collect(Collectors.toList());
+        if (evicted.isEmpty()) {
+            return artifacts;
+        }
+        getLog().info("Downloading " + evicted.size() + " artifacts evicted from spool");
+        try {
+            for (ArtifactResult result : downloadMissingArtifacts(evicted, true)) {
+                pinned.put(ArtifactKey.of(result.getArtifact()), result.getArtifact());
+            }
+        } catch (MojoFailureException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        return new ArrayList<>(pinned.values());
     }
 
-    protected abstract List<Artifact> getExistingArtifacts() throws MojoFailureException, MojoExecutionException;
+    protected void releaseSpooled(List<Artifact> artifacts) {
+        if (downloadSpool == null) {
+            return;
+        }
+        for (Artifact artifact : artifacts) {
+            try {
+                downloadSpool.release(artifact);
+            } catch (IOException ex) {
+                getLog().warn("Failed to delete spooled file " + artifact.getFile(), ex);
+            }
+        }
+    }
+
+    /**
+     * @return identifier of synchronisation, journal of interrupted run is reused only if identifiers match
+     */
+    protected String getJournalKey() throws MojoFailureException {
+        StringBuilder key = new StringBuilder(getClass().getName());
+        for (RemoteRepository repository : getSourceRepositories()) {
+            key.append(' ').append(repository.getUrl());
+        }
+        return key.append(" -> ").append(getTargetRepository().getUrl()).toString();
+    }
+
+    protected void journalDiscovered(List<Artifact> artifacts) throws MojoFailureException, MojoExecutionException {
+        SyncJournal journal = getSyncJournal();
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.discovered(artifacts);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write sync journal", ex);
+        }
+    }
+
+    protected void journalDeployed(List<Artifact> artifacts) throws MojoExecutionException {
+        if (syncJournal == null) {
+            return;
+        }
+        try {
+            for (Artifact artifact : artifacts) {
+                syncJournal.deployed(artifact);
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write sync journal", ex);
+        }
+    }
+
+    protected void closeJournal(boolean completed) {
+        if (syncJournal == null) {
+            return;
+        }
+        try {
+            if (completed) {
+                syncJournal.delete();
+            } else {
+                syncJournal.close();
+                getLog().info("Progress of interrupted run is recorded in " + syncJournal.getFile());
+            }
+        } catch (IOException ex) {
+            getLog().warn("Failed to close sync journal", ex);
+        }
+    }
+
+    protected void saveInventory() {
+        if (targetInventory == null) {
+            return;
+        }
+        try {
+            targetInventory.save();
+        } catch (IOException ex) {
+            getLog().warn("Failed to save inventory of target repository", ex);
+        }
+    }
+
+    protected void reportCollectionCache() {
+        if (collectionCache != null && collectionCache.isUsed()) {
+            getLog().info("Collection cache: " + collectionCache.getStatistics());
+        }
+    }
+
+    protected void reportConcurrencyLimits() {
+        if (limitingTransferListener == null) {
+            return;
+        }
+        for (AdaptiveLimiter limiter : limitingTransferListener.getLimiters()) {
+            getLog().info("Concurrency of " + limiter.getRepository() + ": limit " + limiter.getLimit()
+                    + ", peak " + limiter.getPeak() + ", decreased " + limiter.getDecreases() + " times");
+        }
+    }
+
+    protected void reportMetrics() {
+        Log log = getLog();
+        metrics.report(log);
+        if (metricsFile == null) {
+            return;
+        }
+        try {
+            metrics.writeJson(metricsFile.toPath());
+            log.info("Metrics written to " + metricsFile);
+        } catch (IOException ex) {
+            log.warn("Failed to write metrics to " + metricsFile, ex);
+        }
+    }
+
+    /**
+     * @return trace attributing transfers made by a request to the phase
+     */
+    protected RequestTrace newTrace(String phase) {
+        return metrics.phase(phase).newTrace();
+    }
+
+    protected RepositorySystemSession getRepositorySession() {
+        if (repositorySession == null) {
+            DefaultRepositorySystemSession derived = new DefaultRepositorySystemSession(session.getRepositorySession());
+            derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_THREADS, checkThreads);
+            derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_REPOSITORY_THREADS, checkRepositoryThreads);
+            derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_VIRTUAL_THREADS, virtualThreads);
+            if (virtualThreads && !WorkerExecutors.isVirtualThreadsSupported()) {
+                getLog().warn("Virtual threads are not supported by Java " + System.getProperty("java.version") + ", platform threads are used");
+            }
+            metrics.setSlowTransferThreshold(slowTransferThreshold);
+            derived.setTransferListener(ChainedTransferListener.newInstance(metrics.getTransferListener(), derived.getTransferListener()));
+            if (adaptiveConcurrency) {
+                // transfers wait for admission before metrics listener starts measuring them
+                limitingTransferListener = new LimitingTransferListener(checkRepositoryThreads, maxRepositoryConcurrency, slowRequestThreshold);
+                derived.setTransferListener(ChainedTransferListener.newInstance(limitingTransferListener, derived.getTransferListener()));
+            }
+            derived.setRepositoryListener(ChainedRepositoryListener.newInstance(metrics.getRepositoryListener(), derived.getRepositoryListener()));
+            if (collectCacheSize > 0) {
+                collectionCache = new CollectionCache(derived.getCache(), collectCacheSize);
+                derived.setCache(collectionCache);
+            }
+            repositorySession = derived;
+        }
+        return repositorySession;
+    }
 
     protected List<RemoteRepository> getRemoteRepositories(List<ArtifactRepository> remoteRepositories, boolean injectMirror) {
         Settings settings = this.session.getSettings();
@@ -234,18 +925,18 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
 
     protected List<Artifact> addClassifiersAndPoms(List<Artifact> artifacts) {
         List<Artifact> result = new ArrayList<>();
-        Set<String> seen = new HashSet<>();
+        Set<ArtifactKey> seen = new HashSet<>();
         for (Artifact artifact : artifacts) {
-            if (seen.add(Utils.getId(artifact))) {
+            if (seen.add(ArtifactKey.of(artifact))) {
                 result.add(artifact);
             }
             Artifact pomArtifact = ArtifactDescriptorUtils.toPomArtifact(artifact);
-            if (seen.add(Utils.getId(pomArtifact))) {
+            if (seen.add(ArtifactKey.of(pomArtifact))) {
                 result.add(pomArtifact);
             }
             if (Utils.isWar(artifact)) {
                 Artifact classifierArtifact = Utils.toClassesArtifact(artifact);
-                if (seen.add(Utils.getId(classifierArtifact))) {
+                if (seen.add(ArtifactKey.of(classifierArtifact))) {
                     result.add(classifierArtifact);
                 }
             }
@@ -254,13 +945,13 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
             }
             if (syncJavadoc) {
                 Artifact classifierArtifact = Utils.toJavadocArtifact(artifact);
-                if (seen.add(Utils.getId(classifierArtifact))) {
+                if (seen.add(ArtifactKey.of(classifierArtifact))) {
                     result.add(classifierArtifact);
                 }
             }
             if (syncSources) {
                 Artifact classifierArtifact = Utils.toSourcesArtifact(artifact);
-                if (seen.add(Utils.getId(classifierArtifact))) {
+                if (seen.add(ArtifactKey.of(classifierArtifact))) {
                     result.add(classifierArtifact);
                 }
             }
@@ -269,46 +960,271 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
     }
 
     protected List<Artifact> getMissingArtifacts(List<Artifact> requiredArtifacts) throws MojoFailureException, MojoExecutionException {
+        PhaseMetrics check = metrics.phase("check");
+        long started = check.begin();
         try {
-            RepositorySystemSession repositorySession = session.getRepositorySession();
-            List<ArtifactRequest> requests = Utils.artifactRequests(requiredArtifacts, Collections.singletonList(getTargetRepository()));
-            List<ArtifactResult> target = repositoryArtifactChecker.checkArtifacts(repositorySession, false, requests);
-
+            TargetInventory inventory = getTargetInventory();
+            SyncJournal journal = getSyncJournal();
+            List<Artifact> unknown = requiredArtifacts;
+            if (inventory != null) {
+                unknown = requiredArtifacts.stream()
+                        .filter(a -> !inventory.contains(a))
+                        .collect(Collectors.toList());
+            }
             List<Artifact> missing = new ArrayList<>();
+            if (journal != null) {
+                List<Artifact> unchecked = new ArrayList<>();
+                for (Artifact artifact : unknown) {
+                    if (journal.isMissing(artifact)) {
+                        missing.add(artifact);
+                    } else if (!journal.isPresent(artifact)) {
+                        unchecked.add(artifact);
+                    }
+                }
+                unknown = unchecked;
+            }
+            RepositorySystemSession repositorySession = getRepositorySession();
+            if (checkTargetChecksum != null && !checkTargetChecksum.isEmpty()) {
+                DefaultRepositorySystemSession derived = new DefaultRepositorySystemSession(repositorySession);
+                derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM, checkTargetChecksum);
+                derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM_REPOSITORIES, getSourceRepositories());
+                repositorySession = derived;
+            }
+            List<ArtifactRequest> requests = Utils.artifactRequests(unknown, Collections.singletonList(getTargetRepository()), check.newTrace());
+            RepositoryArtifactChecker checker = checkTargetMetadata ? metadataArtifactChecker : repositoryArtifactChecker;
+            List<ArtifactResult> target = checker.checkArtifacts(repositorySession, false, requests);
+
             for (ArtifactResult result : target) {
-                Utils.checkResult(result, ArtifactNotFoundException.class::isInstance);
+                Utils.checkResult(result, e -> e instanceof ArtifactNotFoundException || e instanceof ArtifactChecksumMismatchException
+                        || e instanceof ArtifactChecksumUnverifiableException);
+                Artifact artifact = result.getRequest().getArtifact();
                 if (result.getArtifact() == null) {
-                    missing.add(result.getRequest().getArtifact());
+                    for (Exception exception : result.getExceptions()) {
+                        if (exception instanceof ArtifactChecksumMismatchException || exception instanceof ArtifactChecksumUnverifiableException) {
+                            getLog().warn(exception.getMessage());
+                        }
+                    }
+                    missing.add(artifact);
+                    if (journal != null) {
+                        journal.missing(artifact);
+                    }
+                } else {
+                    if (inventory != null) {
+                        inventory.add(artifact);
+                    }
+                    if (journal != null) {
+                        journal.present(artifact);
+                    }
                 }
             }
             missing.sort(Comparator.comparing(Artifact::toString));
+            check.addArtifacts(requiredArtifacts.size());
             return missing;
         } catch (ArtifactResolutionException ex) {
             throw new MojoExecutionException("Failed to get missing artifacts", ex);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write sync journal", ex);
+        } finally {
+            check.end(started);
         }
     }
 
     protected List<Artifact> collectDependencies(CollectRequest collectRequest, int depth, String scope) throws MojoExecutionException {
+        return collectDependencies(getRepositorySession(), collectRequest, depth, scope);
+    }
+
+    protected List<Artifact> collectDependencies(RepositorySystemSession repositorySession, CollectRequest collectRequest, int depth, String scope) throws MojoExecutionException {
+        if (collectRequest.getTrace() == null) {
+            collectRequest.setTrace(newTrace("discovery"));
+        }
         try {
-            return dependencyCollector.collectDependencies(session.getRepositorySession(), collectRequest, depth, scope);
+            return dependencyCollector.collectDependencies(repositorySession, collectRequest, depth, scope);
         } catch (DependencyCollectionException ex) {
             throw new MojoExecutionException("Failed to collect dependencies", ex);
         }
     }
 
+    /**
+     * Collects dependency graphs concurrently
+     *
+     * @return distinct artifacts of all graphs in order of requests
+     */
+    protected List<Artifact> collectDependencies(List<CollectRequest> collectRequests, int depth, String scope) throws MojoExecutionException {
+        ExecutorService executor = WorkerExecutors.newExecutor("reposync-collect", collectThreads, virtualThreads);
+        try {
+            List<Future<List<Artifact>>> futures = new ArrayList<>();
+            for (CollectRequest collectRequest : collectRequests) {
+                futures.add(executor.submit(() -> collectDependencies(collectRequest, depth, scope)));
+            }
+            List<Artifact> artifacts = new ArrayList<>();
+            Set<ArtifactKey> seen = new HashSet<>();
+            for (Future<List<Artifact>> future : futures) {
+                for (Artifact artifact : future.get()) {
+                    if (seen.add(ArtifactKey.of(artifact))) {
+                        artifacts.add(artifact);
+                    }
+                }
+            }
+            return artifacts;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            throw new MojoExecutionException("Failed to collect dependencies", cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while collecting dependencies", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     protected List<ArtifactResult> downloadMissingArtifacts(List<Artifact> artifacts) throws MojoFailureException, MojoExecutionException {
+        return downloadMissingArtifacts(artifacts, false);
+    }
+
+    /**
+     * @param deploying whether artifacts are about to be deployed, so their spooled files must not be evicted
+     */
+    protected List<ArtifactResult> downloadMissingArtifacts(List<Artifact> artifacts, boolean deploying) throws MojoFailureException, MojoExecutionException {
+        PhaseMetrics download = metrics.phase("download");
+        long started = download.begin();
         try {
-            List<ArtifactRequest> requests = Utils.artifactRequests(artifacts, getSourceRepositories());
-            List<ArtifactResult> downloaded = artifactResolver.resolveArtifacts(session.getRepositorySession(), requests);
-            for (ArtifactResult result : downloaded) {
+            SyncJournal journal = getSyncJournal();
+            DownloadSpool spool = getDownloadSpool();
+            List<ArtifactResult> downloaded = new ArrayList<>();
+            List<Artifact> remaining = artifacts;
+            if (journal != null) {
+                remaining = new ArrayList<>();
+                for (Artifact artifact : artifacts) {
+                    File file = journal.getDownloaded(artifact);
+                    if (file == null) {
+                        remaining.add(artifact);
+                    } else {
+                        ArtifactResult result = new ArtifactResult(Utils.artifactRequest(artifact, getSourceRepositories()));
+                        Artifact journaled = artifact.setFile(file);
+                        if (spool != null) {
+                            journaled = spool.store(journaled, deploying);
+                        }
+                        downloaded.add(result.setArtifact(journaled));
+                    }
+                }
+            }
+            if (reuseLocalArtifacts) {
+                List<ArtifactResult> reused = new ArrayList<>();
+                remaining = reuseLocalArtifacts(remaining, reused, download.newTrace());
+                for (ArtifactResult result : reused) {
+                    if (journal != null) {
+                        journal.downloaded(result.getArtifact());
+                    }
+                    downloaded.add(result);
+                }
+            }
+            List<ArtifactRequest> requests = Utils.artifactRequests(remaining, getSourceRepositories(), download.newTrace());
+            for (ArtifactResult result : artifactResolver.resolveArtifacts(getDownloadSession(), requests)) {
                 Utils.checkResult(result, e -> false);
+                if (spool != null) {
+                    result.setArtifact(spool.store(result.getArtifact(), deploying));
+                }
+                download.addArtifacts(1);
+                download.addBytes(Utils.getSize(result.getArtifact()));
+                if (journal != null) {
+                    journal.downloaded(result.getArtifact());
+                }
+                downloaded.add(result);
             }
             return downloaded;
         } catch (ArtifactResolutionException ex) {
             throw new MojoExecutionException("Failed to resolve artifacts", ex);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write sync journal or spool downloaded files", ex);
+        } finally {
+            download.end(started);
         }
     }
 
+    /**
+     * Finds copies of release artifacts in local repository and verifies them against
+     * checksum files published by source repositories
+     *
+     * @param reused receives results for artifacts having verified local copies
+     * @return artifacts which need to be downloaded
+     */
+    protected List<Artifact> reuseLocalArtifacts(List<Artifact> artifacts, List<ArtifactResult> reused, RequestTrace trace) throws MojoFailureException, MojoExecutionException {
+        RepositorySystemSession repositorySession = getRepositorySession();
+        LocalRepositoryManager localRepositoryManager = repositorySession.getLocalRepositoryManager();
+        File basedir = localRepositoryManager.getRepository().getBasedir();
+        List<Artifact> remaining = new ArrayList<>();
+        List<Artifact> candidates = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            File file = new File(basedir, localRepositoryManager.getPathForLocalArtifact(artifact));
+            if (artifact.isSnapshot() || !file.isFile()) {
+                remaining.add(artifact);
+            } else {
+                candidates.add(artifact.setFile(file));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return remaining;
+        }
+        DefaultRepositorySystemSession derived = new DefaultRepositorySystemSession(repositorySession);
+        derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM, "sha1");
+        derived.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM_FALLBACK, false);
+        List<ArtifactRequest> requests = Utils.artifactRequests(candidates, getSourceRepositories(), trace);
+        try {
+            for (ArtifactResult result : repositoryArtifactChecker.checkArtifacts(derived, false, requests)) {
+                Artifact artifact = result.getRequest().getArtifact();
+                if (result.getArtifact() == null) {
+                    // checksum differs or is not published
+                    remaining.add(artifact.setFile(null));
+                } else {
+                    reused.add(new ArtifactResult(result.getRequest()).setArtifact(artifact));
+                }
+            }
+        } catch (ArtifactResolutionException ex) {
+            throw new MojoExecutionException("Failed to verify local copies of artifacts", ex);
+        }
+        getLog().info("Reusing " + reused.size() + " of " + candidates.size() + " artifacts found in local repository");
+        return remaining;
+    }
+
+    /**
+     * Transfers missing artifacts directly to target repository if possible
+     *
+     * @return artifacts which need to be downloaded and deployed
+     */
+    protected List<Artifact> streamMissingArtifacts(List<List<Artifact>> batches, int threads) throws MojoFailureException, MojoExecutionException {
+        PhaseMetrics phase = metrics.phase("stream");
+        StreamingTransfer transfer = new StreamingTransfer(transporterProvider, repositoryLayoutProvider, getRepositorySession(),
+                getSourceRepositories(), getTargetRepository(), streamMaxSize * 1024 * 1024, deployRetries, getLog())
+                .setVirtualThreads(virtualThreads)
+                .setTrace(phase.newTrace())
+                .setListener(artifact -> {
+                    // interrupted run does not stream artifact again
+                    journalDeployed(Collections.singletonList(artifact));
+                    if (targetInventory != null) {
+                        targetInventory.add(artifact);
+                    }
+                    getLog().info("\tstreamed " + artifact);
+                });
+        List<Artifact> streamed;
+        long started = phase.begin();
+        try {
+            streamed = transfer.transfer(batches, threads);
+            phase.addArtifacts(streamed.size());
+        } finally {
+            phase.end(started);
+            phase.addBytes(transfer.getBytes());
+            phase.addRetries(transfer.getRetries());
+        }
+        List<Artifact> remaining = new ArrayList<>();
+        for (List<Artifact> batch : batches) {
+            remaining.addAll(batch);
+        }
+        return Utils.without(remaining, streamed);
+    }
+
     protected List<Artifact> getExistingArtifacts(List<Artifact> artifacts) throws MojoFailureException, MojoExecutionException {
         Map<Boolean, List<Artifact>> partitioned = artifacts.stream().collect(Collectors.partitioningBy(Utils::isPom));
         List<Artifact> discovered = new ArrayList<>();
@@ -321,8 +1237,8 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
     protected List<Artifact> checkNonPomArtifacts(List<Artifact> nonpoms) throws MojoFailureException, MojoExecutionException {
         try {
             List<Artifact> discovered = new ArrayList<>();
-            RepositorySystemSession repositorySession = session.getRepositorySession();
-            List<ArtifactRequest> requests = Utils.artifactRequests(nonpoms, getSourceRepositories());
+            RepositorySystemSession repositorySession = getRepositorySession();
+            List<ArtifactRequest> requests = Utils.artifactRequests(nonpoms, getSourceRepositories(), newTrace("discovery"));
             List<ArtifactResult> sourceArtifacts = repositoryArtifactChecker.checkArtifacts(repositorySession, false, requests);
             for (ArtifactResult result : sourceArtifacts) {
                 Utils.checkResult(result, ArtifactNotFoundException.class::isInstance);
@@ -337,60 +1253,67 @@ public abstract class AbstractSyncMojo extends AbstractMojo {
     }
 
     protected List<Artifact> loadPomsRecursively(List<Artifact> poms) throws MojoFailureException, MojoExecutionException {
+        List<Artifact> discovered = new ArrayList<>();
+        DefaultRepositorySystemSession repositorySession = new DefaultRepositorySystemSession(getRepositorySession());
+        // references are obtained right after loading pom, so only in-flight ones need to be retained
+        ModelAwareArtifactDescriptorReader descriptorReader = new ModelAwareArtifactDescriptorReader(Math.max(1, pomThreads) * 64);
+        repositorySession.setConfigProperty(ArtifactDescriptorReaderDelegate.class.getName(), descriptorReader);
+        repositorySession.setArtifactDescriptorPolicy((s, r) -> ArtifactDescriptorPolicy.IGNORE_ERRORS);
+        List<RemoteRepository> repositories = getSourceRepositories();
+        Set<ArtifactKey> seen = new HashSet<>();
+        ExecutorService executor = WorkerExecutors.newExecutor("reposync-poms", pomThreads, virtualThreads);
         try {
-            List<Artifact> discovered = new ArrayList<>();
-            DefaultRepositorySystemSession repositorySession = new DefaultRepositorySystemSession(session.getRepositorySession());
-            ModelAwareArtifactDescriptorReader descriptorReader = new ModelAwareArtifactDescriptorReader();
-            repositorySession.setConfigProperty(ArtifactDescriptorReaderDelegate.class.getName(), descriptorReader);
-            repositorySession.setArtifactDescriptorPolicy((s, r) -> ArtifactDescriptorPolicy.IGNORE_ERRORS);
-            Set<String> seen = new HashSet<>();
             while (!poms.isEmpty()) {
-                List<Artifact> next = new ArrayList<>();
+                List<Future<List<Artifact>>> level = new ArrayList<>();
                 for (Artifact artifact : poms) {
-                    if (!seen.add(Utils.getId(artifact))) {
+                    if (!seen.add(ArtifactKey.of(artifact))) {
                         continue;
                     }
-                    ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, getSourceRepositories(), null);
-                    ArtifactDescriptorResult descriptor = artifactDescriptorReader.readArtifactDescriptor(repositorySession, request);
-                    if (descriptor == null) {
-                        continue;
-                    }
-                    Model model = descriptorReader.getModel(artifact);
-                    if (model == null) {
-                        continue;
-                    }
-                    discovered.add(descriptor.getArtifact());
-                    Parent parent = model.getParent();
-                    if (parent != null) {
-                        next.add(Utils.getPomArtifact(parent));
-                    }
-                    DependencyManagement dependencyManagement = model.getDependencyManagement();
-                    if (dependencyManagement == null) {
+                    level.add(executor.submit(() -> loadPom(repositorySession, descriptorReader, repositories, artifact)));
+                }
+                List<Artifact> next = new ArrayList<>();
+                for (Future<List<Artifact>> future : level) {
+                    List<Artifact> loaded = future.get();
+                    if (loaded.isEmpty()) {
                         continue;
                     }
-                    for (org.apache.maven.model.Dependency dependency : dependencyManagement.getDependencies()) {
-                        if (!"import".equals(dependency.getScope())) {
-                            continue;
-                        }
-                        next.add(Utils.getPomArtifact(dependency));
-                    }
+                    discovered.add(loaded.get(0));
+                    next.addAll(loaded.subList(1, loaded.size()));
                 }
                 poms = next;
             }
             return discovered;
-        } catch (ArtifactDescriptorException ex) {
-            throw new MojoExecutionException("Failed to load poms", ex);
+        } catch (ExecutionException ex) {
+            throw new MojoExecutionException("Failed to load poms", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while loading poms", ex);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    protected DeployRequest createDeployRequest(List<ArtifactResult> artifacts) throws MojoFailureException {
-        DeployRequest deployRequest = new DeployRequest();
-        deployRequest.setRepository(getTargetRepository());
-        for (ArtifactResult artifactResult : artifacts) {
-            Artifact artifact = artifactResult.getArtifact();
-            deployRequest.addArtifact(artifact);
+    /**
+     * @return empty list if pom can't be loaded, otherwise loaded pom artifact followed by parent and imported poms
+     */
+    protected List<Artifact> loadPom(RepositorySystemSession repositorySession, ModelAwareArtifactDescriptorReader descriptorReader, List<RemoteRepository> repositories, Artifact artifact) throws ArtifactDescriptorException {
+        List<Artifact> result = new ArrayList<>();
+        ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, repositories, null);
+        request.setTrace(newTrace("discovery"));
+        ArtifactDescriptorResult descriptor = artifactDescriptorReader.readArtifactDescriptor(repositorySession, request);
+        if (descriptor == null) {
+            return result;
+        }
+        PomReferences references = descriptorReader.getReferences(artifact);
+        if (references == null) {
+            return result;
         }
-        return deployRequest;
+        result.add(descriptor.getArtifact());
+        if (references.getParent() != null) {
+            result.add(references.getParent());
+        }
+        result.addAll(references.getImports());
+        return result;
     }
 
     protected ArtifactRepository parseRepository(String repo, ArtifactRepositoryPolicy policy) throws MojoFailureException {
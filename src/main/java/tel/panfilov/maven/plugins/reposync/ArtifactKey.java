@@ -0,0 +1,134 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import org.eclipse.aether.artifact.Artifact;
+
+import java.util.regex.Pattern;
+
+/**
+ * Immutable identity of an artifact, groupId:artifactId:classifier:version:extension.
+ * Keys are cheap to create for lookups, keys retained for the whole run should be
+ * {@link #canonical() canonicalised}, so they share strings and are compared
+ * by reference in most cases.
+ */
+public final class ArtifactKey {
+
+    private static final String SNAPSHOT = "SNAPSHOT";
+
+    private static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("^(.*-)?([0-9]{8}\\.[0-9]{6}-[0-9]+)$");
+
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final String classifier;
+
+    private final String version;
+
+    private final String extension;
+
+    private final int hash;
+
+    private ArtifactKey(String groupId, String artifactId, String classifier, String version, String extension) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.classifier = classifier;
+        this.version = version;
+        this.extension = extension;
+        int hash = this.groupId.hashCode();
+        hash = hash * 31 + this.artifactId.hashCode();
+        hash = hash * 31 + this.classifier.hashCode();
+        hash = hash * 31 + this.version.hashCode();
+        hash = hash * 31 + this.extension.hashCode();
+        this.hash = hash;
+    }
+
+    public static ArtifactKey of(Artifact artifact) {
+        return new ArtifactKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getClassifier(),
+                artifact.getVersion(), artifact.getExtension());
+    }
+
+    /**
+     * @param id key in the format produced by {@link #toString()}
+     * @throws IllegalArgumentException if id is malformed
+     */
+    public static ArtifactKey parse(String id) {
+        String[] parts = new String[5];
+        int start = 0;
+        for (int i = 0; i < 4; i++) {
+            int end = id.indexOf(':', start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Bad artifact key " + id);
+            }
+            parts[i] = id.substring(start, end);
+            start = end + 1;
+        }
+        parts[4] = id.substring(start);
+        return new ArtifactKey(parts[0], parts[1], parts[2], parts[3], parts[4]);
+    }
+
+    /**
+     * @return equal key sharing coordinate strings with other canonical keys
+     */
+    public ArtifactKey canonical() {
+        return new ArtifactKey(groupId.intern(), artifactId.intern(), classifier.intern(), version.intern(), extension.intern());
+    }
+
+    /**
+     * @return {@code true} if version is a snapshot one, the same way as {@link Artifact#isSnapshot()}
+     */
+    public boolean isSnapshot() {
+        return version.endsWith(SNAPSHOT) || SNAPSHOT_TIMESTAMP.matcher(version).matches();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ArtifactKey)) {
+            return false;
+        }
+        ArtifactKey that = (ArtifactKey) obj;
+        return hash == that.hash
+                && same(version, that.version)
+                && same(artifactId, that.artifactId)
+                && same(groupId, that.groupId)
+                && same(classifier, that.classifier)
+                && same(extension, that.extension);
+    }
+
+    private static boolean same(String left, String right) {
+        return left == right || left.equals(right);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return groupId + ':' + artifactId + ':' + classifier + ':' + version + ':' + extension;
+    }
+
+}
@@ -27,6 +27,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
 import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.resolution.ArtifactDescriptorException;
 import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
@@ -37,8 +38,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import static tel.panfilov.maven.plugins.reposync.Utils.getId;
-
 /**
  * Synchronises bill of material
  */
@@ -57,6 +56,14 @@ public class BomSyncMojo extends AbstractCLISyncMojo {
     @Parameter(property = "packaging", defaultValue = "pom")
     private String packaging = "pom";
 
+    /**
+     * Collect dependencies of all BOM entries by single dependency graph, so dependencies
+     * shared by BOM entries are processed only once. Every entry is treated as the root of
+     * its own graph, so the same artifacts are collected as by graph per entry
+     */
+    @Parameter(property = "singleGraph", defaultValue = "false")
+    protected boolean singleGraph = false;
+
     /**
      * @param scope Scope threshold to include
      */
@@ -76,26 +83,17 @@ public class BomSyncMojo extends AbstractCLISyncMojo {
         List<Dependency> managed = getManagedDependencies(artifact);
         List<Artifact> artifacts = new ArrayList<>();
         artifacts.add(artifact);
-        Set<String> seen = new HashSet<>();
+        Set<ArtifactKey> seen = new HashSet<>();
         if (transitive) {
-            for (Dependency dependency : managed) {
-                if (!include(dependency)) {
-                    continue;
-                }
-                CollectRequest collectRequest = new CollectRequest();
-                collectRequest.setRoot(dependency);
-                collectRequest.setRepositories(getSourceRepositories());
-                collectRequest.setManagedDependencies(managed);
-                for (Artifact dep : collectDependencies(collectRequest, 1, DEFAULT_SCOPE)) {
-                    if (seen.add(getId(dep))) {
-                        artifacts.add(dep);
-                    }
+            for (Artifact dep : collectDependencies(artifact, managed)) {
+                if (seen.add(ArtifactKey.of(dep))) {
+                    artifacts.add(dep);
                 }
             }
         } else {
             for (Dependency dependency : managed) {
                 Artifact dep = dependency.getArtifact();
-                if (seen.add(getId(dep))) {
+                if (seen.add(ArtifactKey.of(dep))) {
                     artifacts.add(dep);
                 }
             }
@@ -103,10 +101,42 @@ public class BomSyncMojo extends AbstractCLISyncMojo {
         return getExistingArtifacts(addClassifiersAndPoms(artifacts));
     }
 
+    protected List<Artifact> collectDependencies(Artifact bom, List<Dependency> managed) throws MojoFailureException, MojoExecutionException {
+        List<Dependency> included = new ArrayList<>();
+        for (Dependency dependency : managed) {
+            if (include(dependency)) {
+                included.add(dependency);
+            }
+        }
+        if (singleGraph) {
+            CollectRequest collectRequest = new CollectRequest();
+            collectRequest.setRootArtifact(bom);
+            collectRequest.setDependencies(included);
+            collectRequest.setRepositories(getSourceRepositories());
+            collectRequest.setManagedDependencies(managed);
+            collectRequest.setTrace(newTrace("discovery"));
+            try {
+                return dependencyCollector.collectEntryDependencies(getRepositorySession(), collectRequest, 1, DEFAULT_SCOPE);
+            } catch (DependencyCollectionException ex) {
+                throw new MojoExecutionException("Failed to collect dependencies", ex);
+            }
+        }
+        List<CollectRequest> collectRequests = new ArrayList<>();
+        for (Dependency dependency : included) {
+            CollectRequest collectRequest = new CollectRequest();
+            collectRequest.setRoot(dependency);
+            collectRequest.setRepositories(getSourceRepositories());
+            collectRequest.setManagedDependencies(managed);
+            collectRequests.add(collectRequest);
+        }
+        return collectDependencies(collectRequests, 1, DEFAULT_SCOPE);
+    }
+
     protected List<Dependency> getManagedDependencies(Artifact artifact) throws MojoFailureException, MojoExecutionException {
         try {
-            RepositorySystemSession repositorySession = session.getRepositorySession();
+            RepositorySystemSession repositorySession = getRepositorySession();
             ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, getSourceRepositories(), null);
+            request.setTrace(newTrace("discovery"));
             ArtifactDescriptorResult descriptorResult = artifactDescriptorReader.readArtifactDescriptor(repositorySession, request);
             Utils.checkResult(descriptorResult, e -> false);
             return descriptorResult.getManagedDependencies();
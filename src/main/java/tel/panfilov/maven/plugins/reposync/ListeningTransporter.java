@@ -0,0 +1,193 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.PeekTask;
+import org.eclipse.aether.spi.connector.transport.PutTask;
+import org.eclipse.aether.spi.connector.transport.TransportListener;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.transfer.TransferCancelledException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferListener;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+
+/**
+ * Reports transfers made by transporter directly, i.e. not through repository connector,
+ * to transfer listener of the session, so they are admitted by concurrency limiter and
+ * accounted in metrics like transfers made by resolver
+ */
+public class ListeningTransporter implements Transporter {
+
+    private final Transporter transporter;
+
+    private final RepositorySystemSession session;
+
+    private final RemoteRepository repository;
+
+    private final RequestTrace trace;
+
+    public ListeningTransporter(Transporter transporter, RepositorySystemSession session, RemoteRepository repository, RequestTrace trace) {
+        this.transporter = transporter;
+        this.session = session;
+        this.repository = repository;
+        this.trace = trace;
+    }
+
+    @Override
+    public int classify(Throwable error) {
+        return transporter.classify(error);
+    }
+
+    @Override
+    public void peek(PeekTask task) throws Exception {
+        transfer(task.getLocation(), TransferEvent.RequestType.GET_EXISTENCE, -1, null, () -> transporter.peek(task));
+    }
+
+    @Override
+    public void get(GetTask task) throws Exception {
+        TransportListener listener = task.getListener();
+        try {
+            transfer(task.getLocation(), TransferEvent.RequestType.GET, -1, l -> task.setListener(new Forwarding(l, listener)),
+                    () -> transporter.get(task));
+        } finally {
+            task.setListener(listener);
+        }
+    }
+
+    @Override
+    public void put(PutTask task) throws Exception {
+        TransportListener listener = task.getListener();
+        try {
+            transfer(task.getLocation(), TransferEvent.RequestType.PUT, task.getDataLength(), l -> task.setListener(new Forwarding(l, listener)),
+                    () -> transporter.put(task));
+        } finally {
+            task.setListener(listener);
+        }
+    }
+
+    @Override
+    public void close() {
+        transporter.close();
+    }
+
+    private void transfer(URI location, TransferEvent.RequestType type, long length, ListenerSetter setter, Transfer transfer) throws Exception {
+        TransferListener listener = session.getTransferListener();
+        if (listener == null) {
+            transfer.run();
+            return;
+        }
+        TransferResource resource = new TransferResource(repository.getUrl(), location.toString(), null, trace);
+        if (length >= 0) {
+            resource.setContentLength(length);
+        }
+        TransferEvent.Builder event = new TransferEvent.Builder(session, resource).setRequestType(type);
+        try {
+            listener.transferInitiated(event.resetType(TransferEvent.EventType.INITIATED).build());
+            if (setter != null) {
+                setter.set(new Events(listener, event, resource));
+            }
+            transfer.run();
+        } catch (Exception ex) {
+            listener.transferFailed(event.setType(TransferEvent.EventType.FAILED).setException(ex).build());
+            throw ex;
+        }
+        listener.transferSucceeded(event.setType(TransferEvent.EventType.SUCCEEDED).setDataBuffer(null).build());
+    }
+
+    private interface Transfer {
+
+        void run() throws Exception;
+
+    }
+
+    private interface ListenerSetter {
+
+        void set(TransportListener listener);
+
+    }
+
+    /**
+     * Fires started and progressed events
+     */
+    private static class Events extends TransportListener {
+
+        private final TransferListener listener;
+
+        private final TransferEvent.Builder event;
+
+        private final TransferResource resource;
+
+        Events(TransferListener listener, TransferEvent.Builder event, TransferResource resource) {
+            this.listener = listener;
+            this.event = event;
+            this.resource = resource;
+        }
+
+        @Override
+        public void transportStarted(long dataOffset, long dataLength) throws TransferCancelledException {
+            resource.setContentLength(dataLength);
+            listener.transferStarted(event.setType(TransferEvent.EventType.STARTED).setTransferredBytes(dataOffset).build());
+        }
+
+        @Override
+        public void transportProgressed(ByteBuffer data) throws TransferCancelledException {
+            event.setType(TransferEvent.EventType.PROGRESSED).addTransferredBytes(data.remaining()).setDataBuffer(data);
+            listener.transferProgressed(event.build());
+        }
+
+    }
+
+    /**
+     * Notifies listener of task after transfer listener of the session
+     */
+    private static class Forwarding extends TransportListener {
+
+        private final TransportListener first;
+
+        private final TransportListener second;
+
+        Forwarding(TransportListener first, TransportListener second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void transportStarted(long dataOffset, long dataLength) throws TransferCancelledException {
+            first.transportStarted(dataOffset, dataLength);
+            second.transportStarted(dataOffset, dataLength);
+        }
+
+        @Override
+        public void transportProgressed(ByteBuffer data) throws TransferCancelledException {
+            first.transportProgressed(data.duplicate());
+            second.transportProgressed(data);
+        }
+
+    }
+
+}
@@ -21,17 +21,19 @@
 package tel.panfilov.maven.plugins.reposync;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.repository.RemoteRepository;
-import tel.panfilov.maven.plugins.reposync.component.LocalRepositoryVisitor;
+import tel.panfilov.maven.plugins.reposync.cache.ScanSnapshot;
+import tel.panfilov.maven.plugins.reposync.component.LocalRepositoryScanner;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
@@ -59,6 +61,48 @@ public class LocalSyncMojo extends AbstractSyncMojo {
     @Parameter(property = "failOnBadArtifact", defaultValue = "true")
     protected boolean failOnBadArtifact = true;
 
+    /**
+     * Number of threads scanning local repository
+     */
+    @Parameter(property = "scanThreads", defaultValue = "4")
+    protected int scanThreads = 4;
+
+    /**
+     * Sync only files added or modified since previous successful run,
+     * state of directories is recorded in {@link #scanSnapshotDirectory}.
+     * Only directories without files, like groupId and artifactId ones, are skipped
+     * without listing if their modification time has not changed, version directories
+     * are always listed and their files are visited only if names, sizes or modification
+     * times of files have changed. Sources and javadoc selection is a part of recorded
+     * state, so changing {@link #syncSources} or {@link #syncJavadoc} causes the next
+     * run to sync everything
+     */
+    @Parameter(property = "incremental", defaultValue = "false")
+    protected boolean incremental = false;
+
+    /**
+     * Directory to store state of scanned directories in, removing
+     * state files causes the next incremental run to sync everything
+     */
+    @Parameter(property = "scanSnapshotDirectory", defaultValue = "${user.home}/.m2/reposync")
+    protected File scanSnapshotDirectory;
+
+    @Override
+    protected void synchronise() throws MojoExecutionException, MojoFailureException {
+        super.synchronise();
+        if (dryRun || !incremental) {
+            return;
+        }
+        try {
+            // scan is skipped when interrupted sync is resumed, its snapshot is committed then
+            for (RemoteRepository repository : getSourceRepositories()) {
+                new ScanSnapshot(scanSnapshotDirectory.toPath(), getScanKey(repository)).commitPending();
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to save state of scanned directories", ex);
+        }
+    }
+
     @Override
     protected List<Artifact> getExistingArtifacts() throws MojoFailureException {
         Set<Artifact> collectedArtifacts = new HashSet<>();
@@ -72,9 +116,21 @@ public class LocalSyncMojo extends AbstractSyncMojo {
         try {
             URL url = new URL(repository.getUrl());
             Path localRepoPath = Paths.get(url.toURI());
-            LocalRepositoryVisitor localRepositoryVisitor = new LocalRepositoryVisitor(localRepoPath, failOnBadArtifact, getLog());
-            Files.walkFileTree(localRepoPath, localRepositoryVisitor);
-            return localRepositoryVisitor.getResolvedArtifacts().stream()
+            LocalRepositoryScanner scanner = new LocalRepositoryScanner(localRepoPath, failOnBadArtifact, getLog(), scanThreads);
+            Set<Artifact> scanned;
+            if (incremental) {
+                String key = getScanKey(repository);
+                ScanSnapshot previous = new ScanSnapshot(scanSnapshotDirectory.toPath(), key).load();
+                ScanSnapshot current = new ScanSnapshot(scanSnapshotDirectory.toPath(), key);
+                scanned = scanner.scan(previous, current);
+                if (!dryRun) {
+                    current.savePending();
+                }
+                getLog().info("Found " + scanned.size() + " artifacts in directories modified since previous run");
+            } else {
+                scanned = scanner.scan();
+            }
+            return scanned.stream()
                     .filter(this::needToSync)
                     .collect(Collectors.toSet());
         } catch (IOException | URISyntaxException e) {
@@ -83,6 +139,13 @@ public class LocalSyncMojo extends AbstractSyncMojo {
         }
     }
 
+    protected String getScanKey(RemoteRepository repository) throws MojoFailureException {
+        // the same source may be synced to different targets, and directories scanned
+        // without sources or javadoc must be scanned again once they are selected
+        return repository.getUrl() + " -> " + getTargetRepository().getUrl()
+                + " (sources: " + syncSources + ", javadoc: " + syncJavadoc + ")";
+    }
+
     protected boolean needToSync(Artifact artifact) {
         return (!isSourcesArtifact(artifact) || syncSources) &&
                 (!isJavadocArtifact(artifact) || syncJavadoc);
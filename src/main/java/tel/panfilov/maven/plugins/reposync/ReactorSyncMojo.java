@@ -38,9 +38,9 @@ import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.graph.Dependency;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -78,10 +78,11 @@ public class ReactorSyncMojo extends AbstractSyncMojo {
 
     @Override
     protected List<Artifact> getExistingArtifacts() throws MojoFailureException, MojoExecutionException {
-        Set<Artifact> artifactSet = new HashSet<>();
+        List<CollectRequest> collectRequests = new ArrayList<>();
         for (MavenProject project : reactorProjects) {
-            artifactSet.addAll(collectDependencies(project));
+            collectRequests.add(createCollectRequest(project));
         }
+        Set<Artifact> artifactSet = new LinkedHashSet<>(collectDependencies(collectRequests, 0, DEFAULT_SCOPE));
         for (MavenProject project : reactorProjects) {
             artifactSet.remove(RepositoryUtils.toArtifact(project.getArtifact()));
         }
@@ -89,7 +90,7 @@ public class ReactorSyncMojo extends AbstractSyncMojo {
         return getExistingArtifacts(addClassifiersAndPoms(artifacts));
     }
 
-    protected Collection<Artifact> collectDependencies(MavenProject project) throws MojoFailureException, MojoExecutionException {
+    protected CollectRequest createCollectRequest(MavenProject project) throws MojoFailureException, MojoExecutionException {
         ArtifactTypeRegistry typeRegistry = RepositoryUtils.newArtifactTypeRegistry(artifactHandlerManager);
         Artifact projectArtifact = RepositoryUtils.toArtifact(project.getArtifact());
         CollectRequest collectRequest = new CollectRequest();
@@ -126,7 +127,7 @@ public class ReactorSyncMojo extends AbstractSyncMojo {
 
         collectRequest.setDependencies(dependencies);
 
-        return collectDependencies(collectRequest, 0, DEFAULT_SCOPE);
+        return collectRequest;
     }
 
     protected Model getOriginalProjectModel(MavenProject project) {
@@ -139,6 +140,11 @@ public class ReactorSyncMojo extends AbstractSyncMojo {
         );
     }
 
+    @Override
+    protected String getJournalKey() throws MojoFailureException {
+        return super.getJournalKey() + ' ' + session.getExecutionRootDirectory();
+    }
+
     @Override
     protected boolean include(Dependency dependency) {
         return !ignoreScopes.contains(dependency.getScope());
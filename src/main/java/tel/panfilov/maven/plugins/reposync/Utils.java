@@ -24,15 +24,26 @@ import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Parent;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RequestTrace;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.resolution.ArtifactDescriptorResult;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.util.ChecksumUtils;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 public final class Utils {
@@ -76,9 +87,13 @@ public final class Utils {
     }
 
     public static List<ArtifactRequest> artifactRequests(List<Artifact> aetherArtifacts, List<RemoteRepository> remoteRepositories) {
+        return artifactRequests(aetherArtifacts, remoteRepositories, null);
+    }
+
+    public static List<ArtifactRequest> artifactRequests(List<Artifact> aetherArtifacts, List<RemoteRepository> remoteRepositories, RequestTrace trace) {
         List<ArtifactRequest> result = new ArrayList<>();
         for (Artifact artifact : aetherArtifacts) {
-            result.add(artifactRequest(artifact, remoteRepositories));
+            result.add(artifactRequest(artifact, remoteRepositories).setTrace(trace));
         }
         return result;
     }
@@ -135,8 +150,71 @@ public final class Utils {
         return artifact.getClassifier().length() > 0;
     }
 
-    public static String getId(Artifact artifact) {
-        return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getClassifier() + ':' + artifact.getVersion() + ':' + artifact.getExtension();
+    public static long getSize(Artifact artifact) {
+        File file = artifact.getFile();
+        return file == null ? 0 : file.length();
+    }
+
+    public static long getSize(Collection<Artifact> artifacts) {
+        long size = 0;
+        for (Artifact artifact : artifacts) {
+            size += getSize(artifact);
+        }
+        return size;
+    }
+
+    /**
+     * @return artifacts other than excluded ones, artifacts are compared by coordinates
+     */
+    public static List<Artifact> without(List<Artifact> artifacts, Collection<Artifact> excluded) {
+        Set<ArtifactKey> keys = new HashSet<>();
+        for (Artifact artifact : excluded) {
+            keys.add(ArtifactKey.of(artifact));
+        }
+        List<Artifact> result = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            if (!keys.contains(ArtifactKey.of(artifact))) {
+                result.add(artifact);
+            }
+        }
+        return result;
+    }
+
+    public static String sha1(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return ChecksumUtils.toHexString(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static String getVersionId(Artifact artifact) {
+        return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getVersion();
+    }
+
+    /**
+     * Splits artifacts into batches of approximately batchSize artifacts,
+     * keeping artifacts of the same groupId:artifactId:version together
+     */
+    public static List<List<Artifact>> partition(List<Artifact> artifacts, int batchSize) {
+        Map<String, List<Artifact>> versions = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            versions.computeIfAbsent(getVersionId(artifact), k -> new ArrayList<>()).add(artifact);
+        }
+        List<List<Artifact>> result = new ArrayList<>();
+        List<Artifact> batch = new ArrayList<>();
+        for (List<Artifact> version : versions.values()) {
+            if (!batch.isEmpty() && batch.size() + version.size() > batchSize) {
+                result.add(batch);
+                batch = new ArrayList<>();
+            }
+            batch.addAll(version);
+        }
+        if (!batch.isEmpty()) {
+            result.add(batch);
+        }
+        return result;
     }
 
 }
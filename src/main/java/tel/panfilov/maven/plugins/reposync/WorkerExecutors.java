@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import org.eclipse.aether.util.concurrency.WorkerThreadFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors for network-bound tasks: on Java 21 and newer tasks may run
+ * in virtual threads, which makes high number of concurrent blocking requests
+ * cheap, otherwise platform threads are used. Executors are bounded in both cases,
+ * callers rely on the bound, e.g. to retain state of in-flight tasks only.
+ */
+public final class WorkerExecutors {
+
+    private static final Method OF_VIRTUAL;
+
+    private static final Method NAME;
+
+    private static final Method FACTORY;
+
+    private static final Method PER_TASK;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method perTask = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // preview versions throw if preview features are disabled
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // virtual threads are not supported
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        PER_TASK = perTask;
+    }
+
+    private WorkerExecutors() {
+        super();
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @param name    prefix of thread names
+     * @param threads maximum number of concurrently running tasks
+     * @param virtual whether to use virtual threads if supported
+     */
+    public static ExecutorService newExecutor(String name, int threads, boolean virtual) {
+        ThreadFactory factory = null;
+        if (virtual) {
+            factory = newVirtualThreadFactory(name);
+        }
+        if (factory == null) {
+            factory = new WorkerThreadFactory(name);
+        }
+        return Executors.newFixedThreadPool(Math.max(1, threads), factory);
+    }
+
+    /**
+     * Unlike {@link #newExecutor(String, int, boolean)} the executor is not bounded,
+     * every task is started in a new virtual thread, so callers bound concurrency
+     * themselves, e.g. by semaphores acquired by tasks
+     *
+     * @param name prefix of thread names
+     * @return executor or {@code null} if virtual threads are not supported
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        ThreadFactory factory = newVirtualThreadFactory(name);
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) PER_TASK.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory newVirtualThreadFactory(String name) {
+        if (!isVirtualThreadsSupported()) {
+            return null;
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.cache;
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repository cache shared by all dependency collections of single mojo execution,
+ * wraps cache of maven session and bounds the pool of artifact descriptors only,
+ * so descriptors are retained across collections without growing unbounded.
+ * Dependency collector of aether 1.0 and resolver up to 1.7 keeps descriptors in
+ * a map, resolver 1.8+ keeps them in an intern pool, the pool is replaced by proxy
+ * backed by the same bounded map, other entries are passed to session cache as is.
+ */
+public class CollectionCache implements RepositoryCache {
+
+    /**
+     * Keys of descriptor pool used by dependency collector of aether 1.0 and resolver 1.x
+     */
+    static final String[] DESCRIPTORS = {
+            "org.eclipse.aether.internal.impl.DataPool$Descriptors",
+            "org.eclipse.aether.internal.impl.collect.DataPool$Descriptors"
+    };
+
+    /**
+     * Descriptor pool interface of resolver 1.8+
+     */
+    static final String INTERN_POOL = "org.eclipse.aether.internal.impl.collect.DataPool$InternPool";
+
+    private final RepositoryCache delegate;
+
+    private final Map<Object, Object> descriptors;
+
+    private final Object descriptorPool;
+
+    private final Counters counters = new Counters();
+
+    /**
+     * @param delegate cache of maven session, {@code null} if session has no cache
+     * @param maxSize  maximum number of cached descriptors, least recently used are evicted first
+     */
+    public CollectionCache(RepositoryCache delegate, int maxSize) {
+        this.delegate = delegate == null ? new DefaultRepositoryCache() : delegate;
+        this.descriptors = newLruMap(maxSize, counters);
+        this.descriptorPool = newDescriptorPool(descriptors);
+    }
+
+    @Override
+    public void put(RepositorySystemSession session, Object key, Object value) {
+        if (!isDescriptors(key)) {
+            delegate.put(session, key, value);
+        }
+    }
+
+    @Override
+    public Object get(RepositorySystemSession session, Object key) {
+        if (isDescriptors(key)) {
+            return descriptorPool;
+        }
+        return delegate.get(session, key);
+    }
+
+    public String getStatistics() {
+        return "descriptors: " + counters;
+    }
+
+    public boolean isUsed() {
+        return counters.total() > 0;
+    }
+
+    private static boolean isDescriptors(Object key) {
+        return DESCRIPTORS[0].equals(key) || DESCRIPTORS[1].equals(key);
+    }
+
+    /**
+     * @return intern pool backed by descriptors map if dependency collector uses pools, descriptors map otherwise
+     */
+    private static Object newDescriptorPool(Map<Object, Object> descriptors) {
+        Class<?> pool;
+        try {
+            pool = Class.forName(INTERN_POOL, false, RepositoryCache.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return descriptors;
+        }
+        return Proxy.newProxyInstance(pool.getClassLoader(), new Class<?>[]{pool}, new InternPoolHandler(descriptors));
+    }
+
+    private static Map<Object, Object> newLruMap(int maxSize, Counters counters) {
+        return Collections.synchronizedMap(new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+            @Override
+            public Object get(Object key) {
+                Object value = super.get(key);
+                counters.count(value != null);
+                return value;
+            }
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Implements {@code V get(K)} and {@code V intern(K, V)} of intern pool
+     */
+    static class InternPoolHandler implements InvocationHandler {
+
+        private final Map<Object, Object> map;
+
+        InternPoolHandler(Map<Object, Object> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "get":
+                    return map.get(args[0]);
+                case "intern":
+                    Object existing = map.putIfAbsent(args[0], args[1]);
+                    return existing == null ? args[1] : existing;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CollectionCache descriptor pool";
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+
+    }
+
+    static class Counters {
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        void count(boolean hit) {
+            if (hit) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+            }
+        }
+
+        long total() {
+            return hits.get() + misses.get();
+        }
+
+        @Override
+        public String toString() {
+            return hits.get() + " hits, " + misses.get() + " misses";
+        }
+
+    }
+
+}
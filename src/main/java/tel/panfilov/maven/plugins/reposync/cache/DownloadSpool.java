@@ -0,0 +1,347 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.cache;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.util.ChecksumUtils;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage of downloaded files: files are downloaded into
+ * incoming directory and then moved to objects directory under the name of
+ * their SHA-1 checksum, so artifacts sharing content share the file. Files are
+ * deleted once all artifacts referencing them get deployed, when total size
+ * exceeds the limit least recently used files not being deployed are evicted,
+ * artifacts referencing evicted files need to be downloaded again.
+ */
+public class DownloadSpool {
+
+    private static final String SHA1 = "SHA-1";
+
+    private static final String[] CHECKSUM_EXTENSIONS = {".md5", ".sha1", ".sha256", ".sha512"};
+
+    private final Path incoming;
+
+    private final Path objects;
+
+    private final long maxSize;
+
+    /**
+     * guards entries, unlike monitors does not pin carriers of virtual
+     * threads while moving and deleting files
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * entries in access order, the eldest one is evicted first
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private int evictions;
+
+    /**
+     * @param directory directory to store downloaded files in
+     * @param maxSize   maximum total size of stored files in bytes
+     */
+    public DownloadSpool(Path directory, long maxSize) {
+        this.incoming = directory.resolve("incoming");
+        this.objects = directory.resolve("objects");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return directory to download files into, i.e. base directory of local repository
+     */
+    public Path getIncomingDirectory() {
+        return incoming;
+    }
+
+    /**
+     * Registers files left by interrupted run and removes incomplete downloads,
+     * files left are evicted first unless referenced again
+     */
+    public DownloadSpool load() throws IOException {
+        lock.lock();
+        try {
+            if (Files.isDirectory(incoming)) {
+                List<Path> paths;
+                try (Stream<Path> stream = Files.walk(incoming)) {
+                    paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+                }
+                for (Path path : paths) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            Files.createDirectories(incoming);
+            if (!Files.isDirectory(objects)) {
+                return this;
+            }
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(objects, 2)) {
+                files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            Map<Path, FileTime> modified = new HashMap<>();
+            for (Path file : files) {
+                modified.put(file, Files.getLastModifiedTime(file));
+            }
+            files.sort(Comparator.comparing(modified::get));
+            for (Path file : files) {
+                Entry entry = new Entry(file);
+                entry.size = Files.size(file);
+                entry.stored = true;
+                entries.put(file.getFileName().toString(), entry);
+                size += entry.size;
+            }
+            return this;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves file of downloaded artifact into the spool, files outside
+     * of spool directories are left intact
+     *
+     * @return artifact referencing stored file
+     */
+    public Artifact store(Artifact artifact) throws IOException {
+        return store(artifact, false);
+    }
+
+    /**
+     * Moves file of downloaded artifact into the spool, files outside
+     * of spool directories are left intact
+     *
+     * @param pin whether to protect the file from eviction, see {@link #pin(Artifact)}
+     * @return artifact referencing stored file
+     */
+    public Artifact store(Artifact artifact, boolean pin) throws IOException {
+        Path file = artifact.getFile().toPath();
+        String checksum;
+        if (file.startsWith(objects)) {
+            // file downloaded by interrupted run
+            checksum = file.getFileName().toString();
+        } else if (!file.startsWith(incoming)) {
+            // file is not managed by spool, e.g. copy in local repository
+            return artifact;
+        } else {
+            Object calculated = ChecksumUtils.calc(file.toFile(), Collections.singleton(SHA1)).get(SHA1);
+            if (calculated instanceof Exception) {
+                throw new IOException("Failed to calculate checksum of " + file, (Exception) calculated);
+            }
+            checksum = (String) calculated;
+        }
+        lock.lock();
+        try {
+            Entry entry = entries.computeIfAbsent(checksum, k -> new Entry(objects.resolve(k.substring(0, 2)).resolve(k)));
+            if (!entry.stored || !Files.isRegularFile(entry.file)) {
+                if (!entry.file.equals(file)) {
+                    Files.createDirectories(entry.file.getParent());
+                    move(file, entry.file);
+                    deleteChecksums(file);
+                }
+                if (!entry.stored) {
+                    entry.size = Files.size(entry.file);
+                    entry.stored = true;
+                    size += entry.size;
+                }
+            } else if (!entry.file.equals(file)) {
+                Files.deleteIfExists(file);
+                deleteChecksums(file);
+            }
+            ArtifactKey key = ArtifactKey.of(artifact);
+            entry.references.add(key);
+            if (pin) {
+                entry.deploying.add(key);
+            }
+            evict(checksum);
+            return artifact.setFile(entry.file.toFile());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Protects file of artifact being deployed from eviction
+     *
+     * @return {@code false} if file has been evicted and needs to be downloaded again
+     */
+    public boolean pin(Artifact artifact) {
+        lock.lock();
+        try {
+            File file = artifact.getFile();
+            if (file != null && !file.toPath().startsWith(objects)) {
+                // file is not managed by spool, e.g. copy in local repository
+                return file.isFile();
+            }
+            Entry entry = getEntry(artifact);
+            if (entry == null || !entry.stored || !Files.isRegularFile(entry.file)) {
+                return false;
+            }
+            entry.deploying.add(ArtifactKey.of(artifact));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases file of deployed artifact, file is deleted if no other
+     * artifacts reference it
+     */
+    public void release(Artifact artifact) throws IOException {
+        lock.lock();
+        try {
+            Entry entry = getEntry(artifact);
+            if (entry == null) {
+                return;
+            }
+            ArtifactKey key = ArtifactKey.of(artifact);
+            entry.deploying.remove(key);
+            entry.references.remove(key);
+            if (entry.references.isEmpty()) {
+                entries.remove(entry.file.getFileName().toString());
+                if (entry.stored) {
+                    size -= entry.size;
+                    Files.deleteIfExists(entry.file);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEvictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry getEntry(Artifact artifact) {
+        File file = artifact.getFile();
+        if (file == null) {
+            return null;
+        }
+        Entry entry = entries.get(file.getName());
+        return entry != null && entry.file.equals(file.toPath()) ? entry : null;
+    }
+
+    /**
+     * Evicts least recently used files which are not being deployed, evicted
+     * entries are kept while referenced, so the file is stored again once
+     * it gets downloaded again
+     */
+    private void evict(String retained) throws IOException {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        List<Path> evicted = new ArrayList<>();
+        while (size > maxSize && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            Entry entry = eldest.getValue();
+            if (!entry.stored || !entry.deploying.isEmpty() || eldest.getKey().equals(retained)) {
+                continue;
+            }
+            entry.stored = false;
+            size -= entry.size;
+            evicted.add(entry.file);
+            evictions++;
+            if (entry.references.isEmpty()) {
+                it.remove();
+            }
+        }
+        for (Path file : evicted) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Deletes checksum files downloaded along with the file
+     */
+    private void deleteChecksums(Path file) throws IOException {
+        if (!file.startsWith(incoming)) {
+            return;
+        }
+        for (String extension : CHECKSUM_EXTENSIONS) {
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + extension));
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static class Entry {
+
+        final Path file;
+
+        final Set<ArtifactKey> references = new HashSet<>();
+
+        final Set<ArtifactKey> deploying = new HashSet<>();
+
+        long size;
+
+        boolean stored;
+
+        Entry(Path file) {
+            this.file = file;
+        }
+
+    }
+
+}
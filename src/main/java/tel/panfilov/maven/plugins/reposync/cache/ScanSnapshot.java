@@ -0,0 +1,215 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.cache;
+
+import tel.panfilov.maven.plugins.reposync.Utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of local repository directories recorded by previous scan:
+ * modification time, names of subdirectories and fingerprint of names,
+ * sizes and modification times of files. Directory without files which
+ * modification time has not changed since previous scan has the same
+ * subdirectories, so there is no need to list it again, files of directory
+ * which fingerprint has not changed do not need to be synced again, even
+ * though file overwritten in place does not change modification time of
+ * directory. Snapshot is saved as pending once scan completes and replaces
+ * previous one after successful sync, so resumed sync commits the snapshot
+ * recorded by the interrupted one.
+ */
+public class ScanSnapshot {
+
+    private static final String PENDING = ".pending";
+
+    private final Path file;
+
+    private final Path pending;
+
+    private final String key;
+
+    private final Map<String, DirectoryState> directories = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory directory to store snapshot files in
+     * @param key       identifier of scanned repository
+     */
+    public ScanSnapshot(Path directory, String key) {
+        this.key = key;
+        this.file = directory.resolve(Utils.sha1(key) + ".scan");
+        this.pending = file.resolveSibling(file.getFileName() + PENDING);
+    }
+
+    public ScanSnapshot load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return this;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] tokens = line.split("\t", -1);
+                if (tokens.length != 3 && tokens.length != 5) {
+                    throw new IOException("Corrupted scan snapshot " + file);
+                }
+                List<String> subdirectories = tokens[2].isEmpty()
+                        ? Collections.emptyList()
+                        : Arrays.asList(tokens[2].split("/"));
+                // files of snapshots recorded by previous versions are unknown
+                int files = tokens.length == 5 ? Integer.parseInt(tokens[3]) : -1;
+                long fingerprint = tokens.length == 5 ? Long.parseUnsignedLong(tokens[4], 16) : 0;
+                directories.put(tokens[0], new DirectoryState(Long.parseLong(tokens[1]), subdirectories, files, fingerprint));
+            }
+        } catch (NumberFormatException ex) {
+            throw new IOException("Corrupted scan snapshot " + file, ex);
+        }
+        return this;
+    }
+
+    /**
+     * Saves snapshot as pending one, see {@link #commitPending()}
+     */
+    public void savePending() throws IOException {
+        write(pending);
+    }
+
+    /**
+     * Replaces previous snapshot with pending one
+     *
+     * @return {@code false} if there is no pending snapshot
+     */
+    public boolean commitPending() throws IOException {
+        if (!Files.isRegularFile(pending)) {
+            return false;
+        }
+        Files.move(pending, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    public void save() throws IOException {
+        write(file);
+    }
+
+    private void write(Path target) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# " + key);
+                writer.newLine();
+                for (Map.Entry<String, DirectoryState> entry : directories.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(String.valueOf(entry.getValue().modified));
+                    writer.write('\t');
+                    writer.write(String.join("/", entry.getValue().subdirectories));
+                    writer.write('\t');
+                    writer.write(String.valueOf(entry.getValue().files));
+                    writer.write('\t');
+                    writer.write(Long.toHexString(entry.getValue().fingerprint));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @param path relative path of directory, elements are separated by slash
+     */
+    public DirectoryState get(String path) {
+        return directories.get(path);
+    }
+
+    public void put(String path, DirectoryState state) {
+        directories.put(path, state);
+    }
+
+    public int size() {
+        return directories.size();
+    }
+
+    /**
+     * @return fingerprint of file, fingerprint of directory is the sum of fingerprints of its files
+     */
+    public static long fingerprint(String name, long size, long modified) {
+        long hash = name.hashCode();
+        hash = hash * 31 + size;
+        hash = hash * 31 + modified;
+        return hash * 0x9E3779B97F4A7C15L;
+    }
+
+    public static class DirectoryState {
+
+        private final long modified;
+
+        private final List<String> subdirectories;
+
+        private final int files;
+
+        private final long fingerprint;
+
+        /**
+         * @param files       number of files in directory, negative if unknown
+         * @param fingerprint sum of fingerprints of files
+         */
+        public DirectoryState(long modified, List<String> subdirectories, int files, long fingerprint) {
+            this.modified = modified;
+            this.subdirectories = new ArrayList<>(subdirectories);
+            this.files = files;
+            this.fingerprint = fingerprint;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public List<String> getSubdirectories() {
+            return subdirectories;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+    }
+
+}
@@ -0,0 +1,356 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.cache;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
+import tel.panfilov.maven.plugins.reposync.Utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only journal of synchronisation progress: discovered artifacts,
+ * results of target checks, downloaded files and deployed artifacts are
+ * recorded as soon as they are known, so interrupted run may be resumed
+ * without repeating completed work. Journal is removed once run completes.
+ */
+public class SyncJournal implements Closeable {
+
+    private static final char DISCOVERED = 'D';
+
+    private static final char DISCOVERY_COMPLETE = 'E';
+
+    private static final char PRESENT = 'P';
+
+    private static final char MISSING = 'M';
+
+    private static final char DOWNLOADED = 'L';
+
+    private static final char DEPLOYED = 'T';
+
+    private final Path file;
+
+    private final int syncInterval;
+
+    /**
+     * guards state and journal file, unlike monitors does not pin carriers of
+     * virtual threads while writing to disk
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final List<Artifact> discovered = new ArrayList<>();
+
+    private boolean discoveryComplete;
+
+    private final Map<ArtifactKey, Character> states = new HashMap<>();
+
+    private final Map<ArtifactKey, File> files = new HashMap<>();
+
+    private FileOutputStream stream;
+
+    private Writer writer;
+
+    private int unsynced;
+
+    /**
+     * @param directory    directory to store journal files in
+     * @param key          identifier of synchronisation
+     * @param syncInterval number of records written between flushes to disk,
+     *                     every record is flushed if the value is not positive
+     */
+    public SyncJournal(Path directory, String key, int syncInterval) {
+        this.file = directory.resolve(Utils.sha1(key) + ".journal");
+        this.syncInterval = Math.max(1, syncInterval);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public SyncJournal load() throws IOException {
+        lock.lock();
+        try {
+            if (!Files.isRegularFile(file)) {
+                return this;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // the last line may be incomplete if previous run was killed
+                    if (line.isEmpty() || !apply(line)) {
+                        break;
+                    }
+                }
+            }
+            return this;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean apply(String line) {
+        String[] tokens = line.split("\t", -1);
+        char type = tokens[0].length() == 1 ? tokens[0].charAt(0) : 0;
+        if (type == DISCOVERY_COMPLETE) {
+            discoveryComplete = true;
+            return true;
+        }
+        if (tokens.length < 2) {
+            return false;
+        }
+        Artifact artifact;
+        try {
+            artifact = new DefaultArtifact(tokens[1]);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        if (type == DISCOVERED) {
+            discovered.add(artifact);
+            return true;
+        }
+        ArtifactKey key = ArtifactKey.of(artifact).canonical();
+        switch (type) {
+            case DOWNLOADED:
+                if (tokens.length != 3) {
+                    return false;
+                }
+                files.put(key, new File(tokens[2]));
+                states.put(key, type);
+                return true;
+            case PRESENT:
+            case MISSING:
+            case DEPLOYED:
+                states.put(key, type);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return artifacts discovered by interrupted run, {@code null} if discovery has not completed
+     */
+    public List<Artifact> getDiscovered() {
+        lock.lock();
+        try {
+            return discoveryComplete ? new ArrayList<>(discovered) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if artifact is known to be present in target repository
+     */
+    public boolean isPresent(Artifact artifact) {
+        lock.lock();
+        try {
+            Character state = states.get(ArtifactKey.of(artifact));
+            return state != null && (state == PRESENT || state == DEPLOYED);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if artifact is known to be missing in target repository
+     */
+    public boolean isMissing(Artifact artifact) {
+        lock.lock();
+        try {
+            Character state = states.get(ArtifactKey.of(artifact));
+            return state != null && (state == MISSING || state == DOWNLOADED);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return file downloaded by interrupted run, {@code null} if there is no such file
+     */
+    public File getDownloaded(Artifact artifact) {
+        lock.lock();
+        try {
+            ArtifactKey key = ArtifactKey.of(artifact);
+            Character state = states.get(key);
+            File downloaded = files.get(key);
+            if (state == null || state != DOWNLOADED || downloaded == null || !downloaded.isFile()) {
+                return null;
+            }
+            return downloaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void discovered(List<Artifact> artifacts) throws IOException {
+        lock.lock();
+        try {
+            discovered.clear();
+            for (Artifact artifact : artifacts) {
+                discovered.add(artifact);
+                write(DISCOVERED, artifact, null);
+            }
+            discoveryComplete = true;
+            write(DISCOVERY_COMPLETE, null, null);
+            sync();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void present(Artifact artifact) throws IOException {
+        lock.lock();
+        try {
+            update(PRESENT, artifact, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void missing(Artifact artifact) throws IOException {
+        lock.lock();
+        try {
+            update(MISSING, artifact, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void downloaded(Artifact artifact) throws IOException {
+        lock.lock();
+        try {
+            if (artifact.getFile() == null) {
+                return;
+            }
+            files.put(ArtifactKey.of(artifact).canonical(), artifact.getFile());
+            update(DOWNLOADED, artifact, artifact.getFile().getAbsolutePath());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void deployed(Artifact artifact) throws IOException {
+        lock.lock();
+        try {
+            update(DEPLOYED, artifact, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(char type, Artifact artifact, String file) throws IOException {
+        states.put(ArtifactKey.of(artifact).canonical(), type);
+        write(type, artifact, file);
+    }
+
+    private void write(char type, Artifact artifact, String file) throws IOException {
+        if (writer == null) {
+            Files.createDirectories(this.file.getParent());
+            stream = new FileOutputStream(this.file.toFile(), true);
+            writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        }
+        writer.write(type);
+        if (artifact != null) {
+            writer.write('\t');
+            writer.write(artifact.toString());
+        }
+        if (file != null) {
+            writer.write('\t');
+            writer.write(file);
+        }
+        writer.write('\n');
+        if (++unsynced >= syncInterval) {
+            sync();
+        }
+    }
+
+    private void sync() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        writer.flush();
+        stream.getChannel().force(false);
+        unsynced = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (writer == null) {
+                return;
+            }
+            try {
+                sync();
+            } finally {
+                writer.close();
+                writer = null;
+                stream = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes and removes journal of completed run
+     */
+    public void delete() throws IOException {
+        lock.lock();
+        try {
+            close();
+            Files.deleteIfExists(file);
+            discovered.clear();
+            discoveryComplete = false;
+            states.clear();
+            files.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return states.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
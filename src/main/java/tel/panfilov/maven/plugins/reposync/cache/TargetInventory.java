@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.cache;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
+import tel.panfilov.maven.plugins.reposync.Utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent list of artifacts known to be present in target repository.
+ * Released artifacts never change once deployed, so they are considered
+ * present forever, snapshots are considered present for a limited time only.
+ */
+public class TargetInventory {
+
+    private final Path file;
+
+    private final String url;
+
+    private final long snapshotTtl;
+
+    private final Map<ArtifactKey, Long> artifacts = new ConcurrentHashMap<>();
+
+    private volatile boolean modified;
+
+    /**
+     * @param directory   directory to store inventory files in
+     * @param repository  target repository
+     * @param snapshotTtl time in seconds snapshots are considered present,
+     *                    snapshots are not stored if the value is not positive
+     */
+    public TargetInventory(Path directory, RemoteRepository repository, long snapshotTtl) {
+        this.url = repository.getUrl();
+        this.file = directory.resolve(Utils.sha1(url) + ".txt");
+        this.snapshotTtl = TimeUnit.SECONDS.toMillis(snapshotTtl);
+    }
+
+    public TargetInventory load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return this;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int idx = line.lastIndexOf(' ');
+                if (idx < 0) {
+                    continue;
+                }
+                ArtifactKey key = ArtifactKey.parse(line.substring(0, idx)).canonical();
+                long timestamp = Long.parseLong(line.substring(idx + 1));
+                if (isExpired(key, timestamp, now)) {
+                    // dropped on next save
+                    modified = true;
+                    continue;
+                }
+                artifacts.put(key, timestamp);
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Corrupted inventory file " + file, ex);
+        }
+        return this;
+    }
+
+    public void save() throws IOException {
+        long now = System.currentTimeMillis();
+        if (artifacts.entrySet().removeIf(e -> isExpired(e.getKey(), e.getValue(), now))) {
+            modified = true;
+        }
+        if (!modified) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# " + url);
+                writer.newLine();
+                for (Map.Entry<ArtifactKey, Long> entry : artifacts.entrySet()) {
+                    writer.write(entry.getKey().toString());
+                    writer.write(' ');
+                    writer.write(String.valueOf(entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            modified = false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public boolean contains(Artifact artifact) {
+        ArtifactKey key = ArtifactKey.of(artifact);
+        Long timestamp = artifacts.get(key);
+        return timestamp != null && !isExpired(key, timestamp, System.currentTimeMillis());
+    }
+
+    public void add(Artifact artifact) {
+        if (artifact.isSnapshot() && snapshotTtl <= 0) {
+            return;
+        }
+        artifacts.put(ArtifactKey.of(artifact).canonical(), System.currentTimeMillis());
+        modified = true;
+    }
+
+    /**
+     * Forgets all artifacts, stored inventory gets overwritten on save
+     * even if no artifacts are added afterwards
+     */
+    public void clear() {
+        artifacts.clear();
+        modified = true;
+    }
+
+    public int size() {
+        return artifacts.size();
+    }
+
+    private boolean isExpired(ArtifactKey key, long timestamp, long now) {
+        return key.isSnapshot() && now - timestamp >= snapshotTtl;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.transfer.ArtifactTransferException;
+
+/**
+ * Thrown when artifact exists in repository but its checksum cannot be compared:
+ * the artifact being checked has no file, no copy in local repository and
+ * checksum repositories do not publish its checksum
+ */
+public class ArtifactChecksumUnverifiableException extends ArtifactTransferException {
+
+    public ArtifactChecksumUnverifiableException(Artifact artifact, RemoteRepository repository, String algorithm) {
+        super(artifact, repository, "Checksum of " + artifact + " in " + repository.getId()
+                + " (" + repository.getUrl() + ") cannot be verified, no " + algorithm + " checksum to compare with");
+    }
+
+}
@@ -33,6 +33,11 @@ import org.eclipse.aether.collection.DependencySelector;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.graph.DependencyVisitor;
 import org.eclipse.aether.resolution.ArtifactDescriptorPolicy;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
+import tel.panfilov.maven.plugins.reposync.graph.EntryDependencyManager;
+import tel.panfilov.maven.plugins.reposync.graph.EntryDependencySelector;
+import tel.panfilov.maven.plugins.reposync.graph.EntryDependencyTraverser;
+import tel.panfilov.maven.plugins.reposync.graph.EntryGraphTransformer;
 import tel.panfilov.maven.plugins.reposync.selector.AndDependencySelector;
 import tel.panfilov.maven.plugins.reposync.selector.ExclusionDependencySelector;
 import tel.panfilov.maven.plugins.reposync.selector.OptionalDependencySelector;
@@ -43,8 +48,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import static tel.panfilov.maven.plugins.reposync.Utils.getId;
-
 @Component(role = DependencyCollector.class)
 public class DefaultDependencyCollector implements DependencyCollector {
 
@@ -56,31 +59,60 @@ public class DefaultDependencyCollector implements DependencyCollector {
 
     @Override
     public List<Artifact> collectDependencies(RepositorySystemSession session, CollectRequest collectRequest, int depth, String scope) throws DependencyCollectionException {
+        DefaultRepositorySystemSession newSession = newSession(session, depth, scope);
+        CollectResult collectResult = repoSystem.collectDependencies(newSession, collectRequest);
+        return extractArtifacts(collectResult);
+    }
+
+    @Override
+    public List<Artifact> collectEntryDependencies(RepositorySystemSession session, CollectRequest collectRequest, int depth, String scope) throws DependencyCollectionException {
+        DefaultRepositorySystemSession newSession = newSession(session, depth, scope);
+        newSession.setDependencySelector(new EntryDependencySelector(newSession.getDependencySelector()))
+                .setDependencyManager(new EntryDependencyManager(newSession.getDependencyManager()))
+                .setDependencyTraverser(new EntryDependencyTraverser(newSession.getDependencyTraverser()))
+                .setDependencyGraphTransformer(new EntryGraphTransformer(newSession.getDependencyGraphTransformer()));
+        CollectResult collectResult = repoSystem.collectDependencies(newSession, collectRequest);
+        // graphs of entries differ after conflict resolution, so every one is visited separately
+        List<Artifact> artifacts = new ArrayList<>();
+        Set<ArtifactKey> seen = new HashSet<>();
+        for (DependencyNode entry : collectResult.getRoot().getChildren()) {
+            for (Artifact artifact : extractArtifacts(entry)) {
+                if (seen.add(ArtifactKey.of(artifact))) {
+                    artifacts.add(artifact);
+                }
+            }
+        }
+        return artifacts;
+    }
+
+    protected DefaultRepositorySystemSession newSession(RepositorySystemSession session, int depth, String scope) {
         DependencySelector selector = new AndDependencySelector(
                 new OptionalDependencySelector(depth),
                 new ScopeDependencySelector(depth, null, scopeMediator.negate(scope)),
                 new ExclusionDependencySelector()
         );
-        DefaultRepositorySystemSession newSession = new DefaultRepositorySystemSession(session)
+        return new DefaultRepositorySystemSession(session)
                 .setArtifactDescriptorPolicy((s, r) -> ArtifactDescriptorPolicy.IGNORE_ERRORS)
                 .setDependencySelector(selector)
                 .setIgnoreArtifactDescriptorRepositories(true);
-        CollectResult collectResult = repoSystem.collectDependencies(newSession, collectRequest);
-        return extractArtifacts(collectResult);
     }
 
     protected List<Artifact> extractArtifacts(CollectResult collectResult) {
+        return extractArtifacts(collectResult.getRoot());
+    }
+
+    protected List<Artifact> extractArtifacts(DependencyNode root) {
         CollectAllDependenciesVisitor visitor = new CollectAllDependenciesVisitor();
-        collectResult.getRoot().accept(visitor);
+        root.accept(visitor);
         List<Artifact> artifacts = new ArrayList<>();
-        Set<String> seen = new HashSet<>();
+        Set<ArtifactKey> seen = new HashSet<>();
         for (Artifact artifact : visitor.getArtifacts()) {
-            if (seen.add(getId(artifact))) {
+            if (seen.add(ArtifactKey.of(artifact))) {
                 artifacts.add(artifact);
             }
         }
-        Artifact rootArtifact = collectResult.getRoot().getArtifact();
-        if (seen.add(getId(rootArtifact))) {
+        Artifact rootArtifact = root.getArtifact();
+        if (seen.add(ArtifactKey.of(rootArtifact))) {
             artifacts.add(rootArtifact);
         }
         return artifacts;
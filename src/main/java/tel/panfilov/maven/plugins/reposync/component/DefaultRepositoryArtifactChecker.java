@@ -22,9 +22,11 @@ package tel.panfilov.maven.plugins.reposync.component;
 
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.RequestTrace;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.impl.OfflineController;
 import org.eclipse.aether.impl.RemoteRepositoryManager;
 import org.eclipse.aether.impl.RepositoryConnectorProvider;
@@ -47,17 +49,94 @@ import org.eclipse.aether.transfer.ArtifactNotFoundException;
 import org.eclipse.aether.transfer.ArtifactTransferException;
 import org.eclipse.aether.transfer.NoRepositoryConnectorException;
 import org.eclipse.aether.transfer.RepositoryOfflineException;
+import org.eclipse.aether.util.ChecksumUtils;
+import org.eclipse.aether.util.ConfigUtils;
+import tel.panfilov.maven.plugins.reposync.WorkerExecutors;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component(role = RepositoryArtifactChecker.class)
 public class DefaultRepositoryArtifactChecker implements RepositoryArtifactChecker {
 
+    /**
+     * Total number of threads performing existence checks, checks are performed
+     * in the calling thread if the value is less than 2, the number is not limited
+     * if checks are performed in virtual threads
+     */
+    public static final String CONFIG_PROP_THREADS = "reposync.checker.threads";
+
+    public static final int DEFAULT_THREADS = 1;
+
+    /**
+     * Maximum number of requests in flight against the same repository, the limit
+     * applies to requests rather than threads: in the calling thread the connector
+     * performs checks in as many threads, otherwise every thread makes single request
+     */
+    public static final String CONFIG_PROP_REPOSITORY_THREADS = "reposync.checker.repositoryThreads";
+
+    public static final int DEFAULT_REPOSITORY_THREADS = 2;
+
+    /**
+     * Whether existence checks are performed in virtual threads if supported, every check
+     * is started in a new virtual thread, so checks are limited by repository threads only
+     */
+    public static final String CONFIG_PROP_VIRTUAL_THREADS = "reposync.checker.virtualThreads";
+
+    public static final boolean DEFAULT_VIRTUAL_THREADS = false;
+
+    /**
+     * Checksum algorithm (sha1, sha256, sha512 or md5), if set existence of artifact
+     * is checked by downloading its checksum sidecar, which is then compared with
+     * the checksum of artifact's file or its copy in local repository if any
+     */
+    public static final String CONFIG_PROP_CHECKSUM = "reposync.checker.checksum";
+
+    /**
+     * Remote repositories to download checksum sidecars from if artifact being checked
+     * has no file and no copy in local repository, artifacts whose checksums are not
+     * found are reported by {@link ArtifactChecksumUnverifiableException}
+     */
+    public static final String CONFIG_PROP_CHECKSUM_REPOSITORIES = "reposync.checker.checksumRepositories";
+
+    /**
+     * Whether existence of artifacts without checksum sidecars is checked by regular
+     * existence check, otherwise such artifacts are considered missing
+     */
+    public static final String CONFIG_PROP_CHECKSUM_FALLBACK = "reposync.checker.checksumFallback";
+
+    public static final boolean DEFAULT_CHECKSUM_FALLBACK = true;
+
+    /**
+     * Number of threads basic connector transfers multiple resources in
+     */
+    private static final String CONFIG_PROP_CONNECTOR_THREADS = "aether.connector.basic.threads";
+
+    private static final Map<String, String> CHECKSUM_ALGORITHMS = new HashMap<>();
+
+    static {
+        CHECKSUM_ALGORITHMS.put("md5", "MD5");
+        CHECKSUM_ALGORITHMS.put("sha1", "SHA-1");
+        CHECKSUM_ALGORITHMS.put("sha256", "SHA-256");
+        CHECKSUM_ALGORITHMS.put("sha512", "SHA-512");
+    }
+
     @Requirement
     private VersionResolver versionResolver;
 
@@ -132,6 +211,7 @@ public class DefaultRepositoryArtifactChecker implements RepositoryArtifactCheck
 
             AtomicBoolean resolved = new AtomicBoolean(false);
             Iterator<ResolutionGroup> groupIt = groups.iterator();
+            ResolutionGroup previous = null;
             for (RemoteRepository repo : repos) {
                 if (!repo.getPolicy(artifact.isSnapshot()).isEnabled()) {
                     continue;
@@ -162,11 +242,17 @@ public class DefaultRepositoryArtifactChecker implements RepositoryArtifactCheck
                     groupIt = Collections.emptyIterator();
                 }
                 group.items.add(new ResolutionItem(trace, artifact, resolved, result, repo));
+                if (previous != null) {
+                    group.predecessors.add(previous);
+                }
+                previous = group;
             }
         }
 
-        for (ResolutionGroup group : groups) {
-            performChecks(session, group);
+        try {
+            performChecks(session, groups);
+        } finally {
+            deleteChecksumFiles(groups);
         }
 
         for (ArtifactResult result : results) {
@@ -196,27 +282,299 @@ public class DefaultRepositoryArtifactChecker implements RepositoryArtifactCheck
         return false;
     }
 
-    protected void performChecks(RepositorySystemSession session, ResolutionGroup group) {
+    /**
+     * Groups are checked level by level: group's level is greater than levels of
+     * all groups containing the same artifacts for repositories with higher priority,
+     * so groups of the same level do not depend on each other and may be checked
+     * concurrently, meanwhile the first repository containing artifact still wins.
+     */
+    protected void performChecks(RepositorySystemSession session, List<ResolutionGroup> groups) {
+        int threads = ConfigUtils.getInteger(session, DEFAULT_THREADS, CONFIG_PROP_THREADS);
+        int repositoryThreads = Math.max(1, ConfigUtils.getInteger(session, DEFAULT_REPOSITORY_THREADS, CONFIG_PROP_REPOSITORY_THREADS));
+        if (threads < 2) {
+            // connector performs checks of group in its own threads
+            DefaultRepositorySystemSession derived = new DefaultRepositorySystemSession(session);
+            derived.setConfigProperty(CONFIG_PROP_CONNECTOR_THREADS, repositoryThreads);
+            List<RepositoryConnector> sources = newChecksumConnectors(derived);
+            try {
+                for (ResolutionGroup group : groups) {
+                    performChecks(derived, group, sources);
+                }
+            } finally {
+                close(sources);
+            }
+            return;
+        }
+
+        Map<Integer, List<ResolutionGroup>> levels = new TreeMap<>();
+        for (ResolutionGroup group : groups) {
+            group.computeLevel();
+            levels.computeIfAbsent(group.level, k -> new ArrayList<>()).add(group);
+        }
+
+        boolean virtualThreads = ConfigUtils.getBoolean(session, DEFAULT_VIRTUAL_THREADS, CONFIG_PROP_VIRTUAL_THREADS);
+        ExecutorService executor = virtualThreads ? WorkerExecutors.newVirtualThreadPerTaskExecutor("reposync-checker") : null;
+        if (executor == null) {
+            executor = WorkerExecutors.newExecutor("reposync-checker", threads, false);
+        }
+        List<RepositoryConnector> sources = newChecksumConnectors(session);
+        try {
+            for (List<ResolutionGroup> level : levels.values()) {
+                performChecks(session, level, executor, repositoryThreads, sources);
+            }
+        } finally {
+            executor.shutdown();
+            close(sources);
+        }
+    }
+
+    /**
+     * Every existence check is submitted as a separate task waiting for one of permits
+     * of its repository, so the number of requests in flight per repository equals the
+     * number of permits: single request is transferred by connector in calling thread.
+     */
+    protected void performChecks(RepositorySystemSession session, List<ResolutionGroup> groups, ExecutorService executor, int repositoryThreads, List<RepositoryConnector> sources) {
+        Map<String, Semaphore> permits = new HashMap<>();
+        Map<ResolutionGroup, RepositoryConnector> connectors = new LinkedHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (ResolutionGroup group : groups) {
+                List<ArtifactDownload> downloads = gatherChecks(session, group);
+                if (downloads.isEmpty()) {
+                    continue;
+                }
+                RepositoryConnector connector = newRepositoryConnector(session, group.repository, downloads);
+                connectors.put(group, connector);
+                if (connector == null) {
+                    continue;
+                }
+                Semaphore semaphore = permits.computeIfAbsent(group.repository.getUrl(), k -> new Semaphore(repositoryThreads));
+                for (ArtifactDownload download : downloads) {
+                    futures.add(executor.submit(() -> {
+                        semaphore.acquireUninterruptibly();
+                        try {
+                            connector.get(Collections.singletonList(download), null);
+                        } finally {
+                            semaphore.release();
+                        }
+                    }));
+                }
+            }
+
+            await(futures);
+
+            futures.clear();
+            for (Map.Entry<ResolutionGroup, RepositoryConnector> entry : connectors.entrySet()) {
+                RepositoryConnector connector = entry.getValue();
+                if (connector == null) {
+                    continue;
+                }
+                Semaphore semaphore = permits.get(entry.getKey().repository.getUrl());
+                for (ResolutionItem item : getChecksumItems(entry.getKey())) {
+                    futures.add(executor.submit(() -> {
+                        semaphore.acquireUninterruptibly();
+                        try {
+                            verifyChecksums(session, connector, sources, Collections.singletonList(item));
+                        } finally {
+                            semaphore.release();
+                        }
+                    }));
+                }
+            }
+
+            await(futures);
+        } finally {
+            close(connectors.values());
+        }
+
+        for (ResolutionGroup group : connectors.keySet()) {
+            evaluateChecks(group);
+        }
+    }
+
+    protected void performChecks(RepositorySystemSession session, ResolutionGroup group, List<RepositoryConnector> sources) {
         List<ArtifactDownload> downloads = gatherChecks(session, group);
         if (downloads.isEmpty()) {
             return;
         }
 
-        try {
-            try (RepositoryConnector connector = repositoryConnectorProvider.newRepositoryConnector(session, group.repository)) {
+        try (RepositoryConnector connector = newRepositoryConnector(session, group.repository, downloads)) {
+            if (connector != null) {
                 connector.get(downloads, null);
+                List<ResolutionItem> checksums = getChecksumItems(group);
+                if (!checksums.isEmpty()) {
+                    verifyChecksums(session, connector, sources, checksums);
+                }
             }
+        }
+
+        evaluateChecks(group);
+    }
+
+    /**
+     * @return connector to repository or {@code null} if there is none, downloads are failed in such case
+     */
+    protected RepositoryConnector newRepositoryConnector(RepositorySystemSession session, RemoteRepository repository, List<ArtifactDownload> downloads) {
+        try {
+            return repositoryConnectorProvider.newRepositoryConnector(session, repository);
         } catch (NoRepositoryConnectorException e) {
             for (ArtifactDownload download : downloads) {
-                download.setException(new ArtifactTransferException(download.getArtifact(), group.repository, e));
+                download.setException(new ArtifactTransferException(download.getArtifact(), repository, e));
             }
+            return null;
         }
+    }
 
-        evaluateChecks(group);
+    /**
+     * @return connectors to checksum repositories, repositories without connectors are skipped
+     */
+    protected List<RepositoryConnector> newChecksumConnectors(RepositorySystemSession session) {
+        List<RepositoryConnector> connectors = new ArrayList<>();
+        if (getChecksumAlgorithm(session) == null) {
+            return connectors;
+        }
+        for (Object repository : ConfigUtils.getList(session, Collections.emptyList(), CONFIG_PROP_CHECKSUM_REPOSITORIES)) {
+            try {
+                connectors.add(repositoryConnectorProvider.newRepositoryConnector(session, (RemoteRepository) repository));
+            } catch (NoRepositoryConnectorException e) {
+                // checksums of artifacts are looked up in other repositories
+            }
+        }
+        return connectors;
+    }
+
+    /**
+     * Checks existence of artifacts whose checksum sidecars were not found,
+     * and computes checksums of files of artifacts whose sidecars were found, local
+     * repository is used to find files of artifacts which have no files, checksums
+     * of artifacts having no local copies are downloaded from checksum repositories
+     */
+    protected void verifyChecksums(RepositorySystemSession session, RepositoryConnector connector, List<RepositoryConnector> sources, List<ResolutionItem> items) {
+        List<ArtifactDownload> fallbacks = new ArrayList<>();
+        List<ResolutionItem> unknown = new ArrayList<>();
+        boolean fallback = ConfigUtils.getBoolean(session, DEFAULT_CHECKSUM_FALLBACK, CONFIG_PROP_CHECKSUM_FALLBACK);
+        for (ResolutionItem item : items) {
+            ArtifactDownload download = item.download;
+            if (download.getException() == null) {
+                item.expectedChecksum = calculateChecksum(session, item);
+                if (item.expectedChecksum == null && download.getException() == null) {
+                    unknown.add(item);
+                }
+            } else if (fallback && download.getException() instanceof ArtifactNotFoundException) {
+                ArtifactDownload existenceCheck = new ArtifactDownload();
+                existenceCheck.setArtifact(item.artifact);
+                existenceCheck.setRequestContext(download.getRequestContext());
+                existenceCheck.setTrace(download.getTrace());
+                existenceCheck.setExistenceCheck(true);
+                existenceCheck.setRepositories(download.getRepositories());
+                item.fallback = existenceCheck;
+                fallbacks.add(existenceCheck);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            downloadChecksums(sources, unknown);
+        }
+        if (!fallbacks.isEmpty()) {
+            connector.get(fallbacks, null);
+        }
+    }
+
+    /**
+     * Downloads checksum sidecars of artifacts from checksum repositories, the first
+     * repository publishing the sidecar wins
+     */
+    protected void downloadChecksums(List<RepositoryConnector> sources, List<ResolutionItem> items) {
+        List<ResolutionItem> remaining = items;
+        for (RepositoryConnector source : sources) {
+            if (remaining.isEmpty()) {
+                return;
+            }
+            Map<ArtifactDownload, ResolutionItem> downloads = new LinkedHashMap<>();
+            for (ResolutionItem item : remaining) {
+                ArtifactDownload download = new ArtifactDownload();
+                download.setArtifact(toChecksumArtifact(item.artifact, item.checksumAlgorithm));
+                download.setFile(createTempFile(item.checksumAlgorithm));
+                download.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+                download.setRequestContext(item.request.getRequestContext());
+                download.setTrace(item.trace);
+                downloads.put(download, item);
+            }
+            remaining = new ArrayList<>();
+            try {
+                source.get(new ArrayList<>(downloads.keySet()), null);
+                for (Map.Entry<ArtifactDownload, ResolutionItem> entry : downloads.entrySet()) {
+                    ArtifactDownload download = entry.getKey();
+                    ResolutionItem item = entry.getValue();
+                    if (download.getException() == null) {
+                        try {
+                            item.expectedChecksum = ChecksumUtils.read(download.getFile());
+                            continue;
+                        } catch (IOException ex) {
+                            // sidecar is looked up in next repository
+                        }
+                    }
+                    remaining.add(item);
+                }
+            } finally {
+                for (ArtifactDownload download : downloads.keySet()) {
+                    download.getFile().delete();
+                }
+            }
+        }
+    }
+
+    private static String calculateChecksum(RepositorySystemSession session, ResolutionItem item) {
+        File file = item.artifact.getFile();
+        if (file == null) {
+            // artifact being checked is usually available in local repository
+            LocalArtifactResult local = session.getLocalRepositoryManager()
+                    .find(session, new LocalArtifactRequest(item.artifact, null, null));
+            file = local.getFile();
+        }
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        String algorithm = CHECKSUM_ALGORITHMS.get(item.checksumAlgorithm);
+        try {
+            Object checksum = ChecksumUtils.calc(file, Collections.singleton(algorithm)).get(algorithm);
+            if (checksum instanceof Exception) {
+                item.download.setException(new ArtifactTransferException(item.artifact, item.repository, (Exception) checksum));
+                return null;
+            }
+            return (String) checksum;
+        } catch (IOException ex) {
+            item.download.setException(new ArtifactTransferException(item.artifact, item.repository, ex));
+            return null;
+        }
+    }
+
+    private static void await(List<Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking artifacts", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
     }
 
     private List<ArtifactDownload> gatherChecks(RepositorySystemSession session, ResolutionGroup group) {
         List<ArtifactDownload> downloads = new ArrayList<>();
+        String checksum = getChecksumAlgorithm(session);
 
         for (ResolutionItem item : group.items) {
             Artifact artifact = item.artifact;
@@ -227,19 +585,81 @@ public class DefaultRepositoryArtifactChecker implements RepositoryArtifactCheck
             boolean snapshot = artifact.isSnapshot();
             RepositoryPolicy policy = remoteRepositoryManager.getPolicy(session, group.repository, !snapshot, snapshot);
             ArtifactDownload download = new ArtifactDownload();
-            download.setArtifact(artifact);
+            if (checksum != null) {
+                download.setArtifact(toChecksumArtifact(artifact, checksum));
+                download.setFile(createTempFile(checksum));
+                download.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+            } else {
+                download.setArtifact(artifact);
+                download.setExistenceCheck(true);
+                download.setChecksumPolicy(policy.getChecksumPolicy());
+            }
             download.setRequestContext(item.request.getRequestContext());
             download.setTrace(item.trace);
-            download.setExistenceCheck(true);
-            download.setChecksumPolicy(policy.getChecksumPolicy());
             download.setRepositories(item.repository.getMirroredRepositories());
             downloads.add(download);
             item.download = download;
+            item.checksumAlgorithm = checksum;
         }
 
         return downloads;
     }
 
+    private static Artifact toChecksumArtifact(Artifact artifact, String checksum) {
+        return new DefaultArtifact(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getClassifier(), artifact.getExtension() + "." + checksum, artifact.getVersion());
+    }
+
+    private static void close(Collection<RepositoryConnector> connectors) {
+        for (RepositoryConnector connector : connectors) {
+            if (connector != null) {
+                connector.close();
+            }
+        }
+    }
+
+    private static List<ResolutionItem> getChecksumItems(ResolutionGroup group) {
+        List<ResolutionItem> items = new ArrayList<>();
+        for (ResolutionItem item : group.items) {
+            if (item.download != null && item.checksumAlgorithm != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static void deleteChecksumFiles(List<ResolutionGroup> groups) {
+        for (ResolutionGroup group : groups) {
+            for (ResolutionItem item : getChecksumItems(group)) {
+                item.download.getFile().delete();
+            }
+        }
+    }
+
+    private static String getChecksumAlgorithm(RepositorySystemSession session) {
+        String checksum = ConfigUtils.getString(session, null, CONFIG_PROP_CHECKSUM);
+        if (checksum == null || checksum.isEmpty()) {
+            return null;
+        }
+        checksum = checksum.toLowerCase(Locale.ENGLISH);
+        if (!CHECKSUM_ALGORITHMS.containsKey(checksum)) {
+            throw new IllegalArgumentException("Unsupported checksum algorithm: " + checksum
+                    + ", supported are " + CHECKSUM_ALGORITHMS.keySet());
+        }
+        return checksum;
+    }
+
+    private static File createTempFile(String checksum) {
+        try {
+            File file = File.createTempFile("reposync-", "." + checksum);
+            // backstop if check gets interrupted before file is deleted
+            file.deleteOnExit();
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     protected void evaluateChecks(ResolutionGroup group) {
         for (ResolutionItem item : group.items) {
             ArtifactDownload download = item.download;
@@ -247,6 +667,11 @@ public class DefaultRepositoryArtifactChecker implements RepositoryArtifactCheck
                 continue;
             }
 
+            if (item.checksumAlgorithm != null) {
+                evaluateChecksum(group, item);
+                continue;
+            }
+
             Artifact artifact = download.getArtifact();
             if (download.getException() == null) {
                 item.resolved.set(true);
@@ -258,6 +683,37 @@ public class DefaultRepositoryArtifactChecker implements RepositoryArtifactCheck
         }
     }
 
+    protected void evaluateChecksum(ResolutionGroup group, ResolutionItem item) {
+        ArtifactDownload download = item.download;
+        try {
+            Exception exception = download.getException();
+            if (exception == null) {
+                String actual = ChecksumUtils.read(download.getFile());
+                if (item.expectedChecksum == null) {
+                    exception = new ArtifactChecksumUnverifiableException(item.artifact, group.repository, item.checksumAlgorithm);
+                } else if (item.expectedChecksum.equalsIgnoreCase(actual)) {
+                    item.resolved.set(true);
+                    item.result.setRepository(group.repository);
+                    item.result.setArtifact(item.artifact);
+                    return;
+                } else {
+                    exception = new ArtifactChecksumMismatchException(item.artifact, group.repository, item.expectedChecksum, actual);
+                }
+            } else if (item.fallback != null) {
+                exception = item.fallback.getException();
+                if (exception == null) {
+                    item.resolved.set(true);
+                    item.result.setRepository(group.repository);
+                    item.result.setArtifact(item.artifact);
+                    return;
+                }
+            }
+            item.result.addException(exception);
+        } catch (IOException ex) {
+            item.result.addException(new ArtifactTransferException(item.artifact, group.repository, ex));
+        }
+    }
+
     protected void checkOffline(RepositorySystemSession session, OfflineController offlineController, RemoteRepository repository) throws RepositoryOfflineException {
         if (session.isOffline()) {
             offlineController.checkOffline(session, repository);
@@ -31,4 +31,12 @@ public interface DependencyCollector {
 
     List<Artifact> collectDependencies(RepositorySystemSession session, CollectRequest collectRequest, int depth, String scope) throws DependencyCollectionException;
 
+    /**
+     * Collects dependencies of direct dependencies of request by single graph, every
+     * direct dependency is treated as the root of separate request having the same
+     * repositories and dependency management, so subgraphs shared by direct dependencies
+     * are collected once, but artifacts are the same as collected by separate requests
+     */
+    List<Artifact> collectEntryDependencies(RepositorySystemSession session, CollectRequest collectRequest, int depth, String scope) throws DependencyCollectionException;
+
 }
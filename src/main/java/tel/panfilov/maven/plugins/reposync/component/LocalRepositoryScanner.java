@@ -0,0 +1,205 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+import tel.panfilov.maven.plugins.reposync.cache.ScanSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scans local repository for artifacts, directories are scanned
+ * by fork-join tasks if parallelism is greater than one or scan
+ * is incremental
+ */
+public class LocalRepositoryScanner {
+
+    /**
+     * Directories modified less than specified number of milliseconds before they were listed
+     * may get modified again without changing their modification time, due to coarse timestamps
+     * of file systems, so their state is recorded as unknown and they are listed by next scan
+     */
+    static final long RACY_INTERVAL = 2000;
+
+    private final Path repositoryDir;
+
+    private final boolean failOnBadArtifact;
+
+    private final Log log;
+
+    private final int parallelism;
+
+    public LocalRepositoryScanner(Path repositoryDir, boolean failOnBadArtifact, Log log, int parallelism) {
+        this.repositoryDir = repositoryDir;
+        this.failOnBadArtifact = failOnBadArtifact;
+        this.log = log;
+        this.parallelism = parallelism;
+    }
+
+    public Set<Artifact> scan() throws IOException {
+        return scan(null, null);
+    }
+
+    /**
+     * @param previous snapshot recorded by previous scan, directories which have not been
+     *                 modified since previous scan are not listed and their artifacts
+     *                 are not included into result
+     * @param current  snapshot to record state of scanned directories into
+     */
+    public Set<Artifact> scan(ScanSnapshot previous, ScanSnapshot current) throws IOException {
+        if (parallelism < 2 && current == null) {
+            LocalRepositoryVisitor visitor = new LocalRepositoryVisitor(repositoryDir, failOnBadArtifact, log);
+            Files.walkFileTree(repositoryDir, visitor);
+            return visitor.getResolvedArtifacts();
+        }
+        Set<Artifact> artifacts = ConcurrentHashMap.newKeySet();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(new ScanTask(repositoryDir, artifacts, previous, current));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        return artifacts;
+    }
+
+    class ScanTask extends RecursiveAction {
+
+        private final Path dir;
+
+        private final Set<Artifact> artifacts;
+
+        private final ScanSnapshot previous;
+
+        private final ScanSnapshot current;
+
+        ScanTask(Path dir, Set<Artifact> artifacts, ScanSnapshot previous, ScanSnapshot current) {
+            this.dir = dir;
+            this.artifacts = artifacts;
+            this.previous = previous;
+            this.current = current;
+        }
+
+        @Override
+        protected void compute() {
+            List<ScanTask> subtasks = new ArrayList<>();
+            try {
+                long modified = current == null ? 0 : Files.getLastModifiedTime(dir).toMillis();
+                if (current == null || !reuse(modified, subtasks)) {
+                    list(modified, subtasks);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            for (ScanTask subtask : subtasks) {
+                subtask.join();
+            }
+        }
+
+        /**
+         * Directory without files is not listed if its modification time has not changed
+         */
+        private boolean reuse(long modified, List<ScanTask> subtasks) {
+            String path = getPath();
+            ScanSnapshot.DirectoryState state = previous == null ? null : previous.get(path);
+            if (state == null || state.getModified() != modified || state.getFiles() != 0) {
+                return false;
+            }
+            current.put(path, state);
+            for (String subdirectory : state.getSubdirectories()) {
+                fork(dir.resolve(subdirectory), subtasks);
+            }
+            return true;
+        }
+
+        /**
+         * Files of directory are visited unless their fingerprint matches previous scan
+         */
+        private void list(long modified, List<ScanTask> subtasks) throws IOException {
+            List<String> subdirectories = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            List<BasicFileAttributes> attributes = new ArrayList<>();
+            long fingerprint = 0;
+            long listed = System.currentTimeMillis();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attrs.isDirectory()) {
+                        subdirectories.add(entry.getFileName().toString());
+                        fork(entry, subtasks);
+                    } else {
+                        files.add(entry);
+                        attributes.add(attrs);
+                        fingerprint += ScanSnapshot.fingerprint(entry.getFileName().toString(),
+                                attrs.size(), attrs.lastModifiedTime().toMillis());
+                    }
+                }
+            }
+            if (current != null) {
+                String path = getPath();
+                ScanSnapshot.DirectoryState state = previous == null ? null : previous.get(path);
+                long recorded = listed - modified < RACY_INTERVAL ? -1 : modified;
+                current.put(path, new ScanSnapshot.DirectoryState(recorded, subdirectories, files.size(), fingerprint));
+                if (state != null && state.getFiles() == files.size() && state.getFingerprint() == fingerprint) {
+                    return;
+                }
+            }
+            LocalRepositoryVisitor visitor = new LocalRepositoryVisitor(repositoryDir, failOnBadArtifact, log, artifacts);
+            for (int i = 0; i < files.size(); i++) {
+                visitor.visitFile(files.get(i), attributes.get(i));
+            }
+        }
+
+        private void fork(Path subdirectory, List<ScanTask> subtasks) {
+            ScanTask subtask = new ScanTask(subdirectory, artifacts, previous, current);
+            subtask.fork();
+            subtasks.add(subtask);
+        }
+
+        private String getPath() {
+            Path relative = repositoryDir.relativize(dir);
+            StringBuilder path = new StringBuilder();
+            for (Path name : relative) {
+                if (path.length() > 0) {
+                    path.append('/');
+                }
+                path.append(name);
+            }
+            return path.toString();
+        }
+
+    }
+
+}
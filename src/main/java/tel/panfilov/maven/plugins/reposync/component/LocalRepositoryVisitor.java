@@ -30,74 +30,109 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static java.util.Objects.requireNonNull;
 
 public class LocalRepositoryVisitor extends SimpleFileVisitor<Path> {
 
-    private static final String ARTIFACT_NAME_REGEXP_TMPL = "^%s-%s(?:-(.+)){0,1}(?:.(\\b\\w+\\b))$";
     private static final String POM_FILE_EXTENSION = "pom";
 
-    private static final String ARTIFACT_ILLEGAL_CHARS_REGEXP = ".*[${].*";
-
     private final Log log;
 
     private final Path repositoryDir;
 
     private final boolean failOnBadArtifact;
 
-    private final Set<Artifact> resolvedArtifacts = new HashSet<>();
+    private final Set<Artifact> resolvedArtifacts;
+
+    /**
+     * coordinates derived from the directory of last visited file,
+     * files of the same directory are visited sequentially
+     */
+    private Path currentDir;
+
+    private String currentGroupId;
+
+    private String currentArtifactId;
+
+    private String currentVersion;
 
     public LocalRepositoryVisitor(Path repositoryDir, boolean failOnBadArtifact, Log log) {
+        this(repositoryDir, failOnBadArtifact, log, new HashSet<>());
+    }
+
+    /**
+     * @param resolvedArtifacts set to store resolved artifacts in, may be shared across visitors
+     */
+    public LocalRepositoryVisitor(Path repositoryDir, boolean failOnBadArtifact, Log log, Set<Artifact> resolvedArtifacts) {
         this.repositoryDir = repositoryDir;
         this.failOnBadArtifact = failOnBadArtifact;
         this.log = log;
+        this.resolvedArtifacts = resolvedArtifacts;
         requireNonNull(this.repositoryDir, "repositoryDir must be not null");
     }
 
     @Override
     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-        tryResolveArtifact(file)
-                .ifPresent(resolvedArtifacts::add);
+        Artifact artifact = tryResolveArtifact(file);
+        if (artifact != null) {
+            resolvedArtifacts.add(artifact);
+        }
         return super.visitFile(file, attrs);
     }
 
-    private Optional<Artifact> tryResolveArtifact(Path absolutePath) throws IOException {
+    private Artifact tryResolveArtifact(Path absolutePath) throws IOException {
         try {
-            Path repoPath = repositoryDir.relativize(absolutePath);
-            if (repoPath.getNameCount() < 3) {
-                return Optional.empty();
+            if (!enterDirectory(absolutePath.getParent())) {
+                return null;
             }
-            String artifactId = getArtifactId(repoPath);
-            String version = getVersion(repoPath);
-            String fileName = repoPath.getFileName().toString();
+            String artifactId = currentArtifactId;
+            String version = currentVersion;
+            String fileName = absolutePath.getFileName().toString();
             validateNoIllegalChars(fileName, "fileName", absolutePath);
             validateNoIllegalChars(artifactId, "artifactId", absolutePath);
             validateNoIllegalChars(version, "version", absolutePath);
 
-            String regExp = String.format(ARTIFACT_NAME_REGEXP_TMPL, artifactId, version);
-            Pattern pattern = Pattern.compile(regExp);
-            Matcher matcher = pattern.matcher(fileName);
-            if (matcher.find()) {
-                String groupId = getGroupId(repoPath);
-                String extension = matcher.group(2);
-                String classifier = POM_FILE_EXTENSION.equals(extension) || matcher.group(1) == null ? "" : matcher.group(1);
-                validateNoIllegalChars(groupId, "groupId", absolutePath);
-                validateNoIllegalChars(classifier, "classifier", absolutePath);
-                validateNoIllegalChars(extension, "extension", absolutePath);
-
-                return Optional.of(new DefaultArtifact(
-                        groupId,
-                        artifactId,
-                        classifier,
-                        extension,
-                        version
-                ));
+            // artifactId-version[-classifier].extension
+            int prefixLength = artifactId.length() + 1 + version.length();
+            if (fileName.length() <= prefixLength + 1
+                    || !fileName.startsWith(artifactId)
+                    || fileName.charAt(artifactId.length()) != '-'
+                    || !fileName.startsWith(version, artifactId.length() + 1)) {
+                return null;
             }
+            int extensionStart = fileName.lastIndexOf('.') + 1;
+            if (extensionStart <= prefixLength || extensionStart == fileName.length()
+                    || !isWord(fileName, extensionStart)) {
+                return null;
+            }
+            String classifier = "";
+            char separator = fileName.charAt(prefixLength);
+            if (separator == '-') {
+                if (extensionStart - 1 <= prefixLength + 1) {
+                    return null;
+                }
+                classifier = fileName.substring(prefixLength + 1, extensionStart - 1);
+            } else if (separator != '.' || extensionStart != prefixLength + 1) {
+                return null;
+            }
+            String extension = fileName.substring(extensionStart);
+            if (POM_FILE_EXTENSION.equals(extension)) {
+                classifier = "";
+            }
+            String groupId = currentGroupId;
+            validateNoIllegalChars(groupId, "groupId", absolutePath);
+            validateNoIllegalChars(classifier, "classifier", absolutePath);
+            validateNoIllegalChars(extension, "extension", absolutePath);
+
+            return new DefaultArtifact(
+                    groupId,
+                    artifactId,
+                    classifier,
+                    extension,
+                    version
+            );
         } catch (Exception e) {
             if (failOnBadArtifact) {
                 throw e;
@@ -106,44 +141,51 @@ public class LocalRepositoryVisitor extends SimpleFileVisitor<Path> {
             }
         }
 
-        return Optional.empty();
+        return null;
     }
 
-    private void validateNoIllegalChars(String property, String propertyName, Path absolutePath) throws IOException {
-        if (property.matches(ARTIFACT_ILLEGAL_CHARS_REGEXP)) {
-            throw new IOException("Artifact [" + absolutePath.toAbsolutePath() + "]" +
-                    " has illegal characters in '" + propertyName + "' property value: '" + property + "'.");
+    /**
+     * @return false if directory is not deep enough to contain artifacts
+     */
+    private boolean enterDirectory(Path dir) {
+        if (dir.equals(currentDir)) {
+            return currentGroupId != null;
         }
+        currentDir = dir;
+        currentGroupId = null;
+        Path versionRepoPath = repositoryDir.relativize(dir);
+        int count = versionRepoPath.getNameCount();
+        if (count < 3) {
+            return false;
+        }
+        currentVersion = versionRepoPath.getName(count - 1).toString();
+        currentArtifactId = versionRepoPath.getName(count - 2).toString();
+        StringBuilder groupId = new StringBuilder();
+        for (int i = 0; i < count - 2; i++) {
+            if (i > 0) {
+                groupId.append('.');
+            }
+            groupId.append(versionRepoPath.getName(i));
+        }
+        currentGroupId = groupId.toString();
+        return true;
     }
 
-    private String getArtifactId(Path pomRepoPath) {
-        return getArtifactDir(pomRepoPath).getFileName().toString();
-    }
-
-    private Path getArtifactDir(Path pomRepoPath) {
-        return pomRepoPath.getParent().getParent();
-    }
-
-    private String getVersion(Path pomRepoPath) {
-        return getVersionDir(pomRepoPath).getFileName().toString();
-    }
-
-    private Path getVersionDir(Path pomRepoPath) {
-        return pomRepoPath.getParent();
+    private static boolean isWord(String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (!(ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_')) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private String getGroupId(Path pomRepoPath) {
-        Path artifactDir = getArtifactDir(pomRepoPath);
-        int artifactIndex = artifactDir.getNameCount() - 1;
-        Path groupRepoPath = pomRepoPath.subpath(0, artifactIndex);
-        StringBuilder groupId = new StringBuilder();
-        for (int i = 0; i < groupRepoPath.getNameCount(); i++) {
-            groupId.append(groupRepoPath.getName(i));
-            if (i != groupRepoPath.getNameCount() - 1) {
-                groupId.append(".");
-            }
+    private void validateNoIllegalChars(String property, String propertyName, Path absolutePath) throws IOException {
+        if (property.indexOf('$') >= 0 || property.indexOf('{') >= 0) {
+            throw new IOException("Artifact [" + absolutePath.toAbsolutePath() + "]" +
+                    " has illegal characters in '" + propertyName + "' property value: '" + property + "'.");
         }
-        return groupId.toString();
     }
 
     public Set<Artifact> getResolvedArtifacts() {
@@ -0,0 +1,415 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.metadata.DefaultMetadata;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayout;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.NoRepositoryLayoutException;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.util.ConfigUtils;
+import tel.panfilov.maven.plugins.reposync.ListeningTransporter;
+import tel.panfilov.maven.plugins.reposync.WorkerExecutors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks existence of release artifacts using maven-metadata.xml and directory
+ * listings: single request per groupId:artifactId finds out versions known to
+ * repository, single listing of version directory per groupId:artifactId:version
+ * finds out which files of the version exist. Metadata may be incomplete, e.g. when
+ * artifacts were copied to repository without updating it, so versions not listed
+ * in metadata are confirmed to be missing by checking their poms. If repository does
+ * not provide directory listings, artifacts of versions listed in metadata are
+ * considered present, and artifacts of other versions which poms exist are checked
+ * by default checker.
+ */
+@Component(role = RepositoryArtifactChecker.class, hint = "metadata")
+public class MetadataRepositoryArtifactChecker implements RepositoryArtifactChecker {
+
+    private static final String MAVEN_METADATA_XML = "maven-metadata.xml";
+
+    private static final Pattern HREF = Pattern.compile("href\\s*=\\s*[\"']([^\"'?#]+)", Pattern.CASE_INSENSITIVE);
+
+    @Requirement
+    private RepositorySystem repoSystem;
+
+    @Requirement(hint = "default")
+    private RepositoryArtifactChecker delegate;
+
+    @Requirement
+    private TransporterProvider transporterProvider;
+
+    @Requirement
+    private RepositoryLayoutProvider layoutProvider;
+
+    @Override
+    public ArtifactResult checkArtifact(RepositorySystemSession session, boolean checkLocal, ArtifactRequest request) throws ArtifactResolutionException {
+        return checkArtifacts(session, checkLocal, Collections.singleton(request)).get(0);
+    }
+
+    @Override
+    public List<ArtifactResult> checkArtifacts(RepositorySystemSession session, boolean checkLocal, Collection<? extends ArtifactRequest> requests) throws ArtifactResolutionException {
+        Map<String, Set<String>> versions = getVersions(session, requests);
+        List<ArtifactRequest> indexed = new ArrayList<>(requests);
+        ArtifactResult[] results = new ArtifactResult[indexed.size()];
+        List<Integer> delegated = new ArrayList<>();
+        Map<String, List<Integer>> listed = new LinkedHashMap<>();
+        Map<String, List<Integer>> unlisted = new LinkedHashMap<>();
+        for (int idx = 0; idx < indexed.size(); idx++) {
+            ArtifactRequest request = indexed.get(idx);
+            String key = getMetadataKey(request);
+            Set<String> known = versions.get(key);
+            if (known == null) {
+                delegated.add(idx);
+                continue;
+            }
+            String version = request.getArtifact().getVersion();
+            Map<String, List<Integer>> target = known.contains(version) ? listed : unlisted;
+            target.computeIfAbsent(key + ':' + version, k -> new ArrayList<>()).add(idx);
+        }
+        if (!unlisted.isEmpty()) {
+            checkPoms(session, checkLocal, indexed, unlisted, results);
+        }
+        if (!listed.isEmpty() || !unlisted.isEmpty()) {
+            delegated.addAll(checkListings(session, indexed, listed, unlisted, results));
+        }
+        if (!delegated.isEmpty()) {
+            Collections.sort(delegated);
+            List<ArtifactRequest> delegatedRequests = new ArrayList<>(delegated.size());
+            for (int idx : delegated) {
+                delegatedRequests.add(indexed.get(idx));
+            }
+            List<ArtifactResult> checked = delegate.checkArtifacts(session, checkLocal, delegatedRequests);
+            for (int i = 0; i < checked.size(); i++) {
+                results[delegated.get(i)] = checked.get(i);
+            }
+        }
+        List<ArtifactResult> result = new ArrayList<>(results.length);
+        Collections.addAll(result, results);
+        return result;
+    }
+
+    /**
+     * Checks poms of versions not listed in metadata, artifacts of versions which poms
+     * are missing are reported missing and their versions are removed from unlisted ones
+     *
+     * @param unlisted positions of requests by version
+     */
+    protected void checkPoms(RepositorySystemSession session, boolean checkLocal, List<ArtifactRequest> requests,
+                             Map<String, List<Integer>> unlisted, ArtifactResult[] results) throws ArtifactResolutionException {
+        List<ArtifactRequest> poms = new ArrayList<>(unlisted.size());
+        for (List<Integer> positions : unlisted.values()) {
+            ArtifactRequest request = requests.get(positions.get(0));
+            ArtifactRequest pomRequest = new ArtifactRequest(toPomArtifact(request.getArtifact()),
+                    request.getRepositories(), request.getRequestContext());
+            pomRequest.setTrace(request.getTrace());
+            poms.add(pomRequest);
+        }
+        List<ArtifactResult> pomResults = delegate.checkArtifacts(session, checkLocal, poms);
+        Iterator<List<Integer>> versions = unlisted.values().iterator();
+        for (ArtifactResult pomResult : pomResults) {
+            List<Integer> positions = versions.next();
+            if (!isMissing(pomResult)) {
+                continue;
+            }
+            versions.remove();
+            for (int idx : positions) {
+                results[idx] = missing(requests.get(idx));
+            }
+        }
+    }
+
+    /**
+     * Lists version directories, artifacts of versions listed in metadata are considered
+     * present if repository does not provide listings
+     *
+     * @return positions of requests to be checked by default checker
+     */
+    protected List<Integer> checkListings(RepositorySystemSession session, List<ArtifactRequest> requests, Map<String, List<Integer>> listed,
+                                          Map<String, List<Integer>> unlisted, ArtifactResult[] results) {
+        Map<String, List<Integer>> versions = new LinkedHashMap<>(listed);
+        versions.putAll(unlisted);
+        Map<String, Endpoint> endpoints = new HashMap<>();
+        List<Integer> delegated = new ArrayList<>();
+        int threads = Math.max(1, ConfigUtils.getInteger(session, DefaultRepositoryArtifactChecker.DEFAULT_REPOSITORY_THREADS,
+                DefaultRepositoryArtifactChecker.CONFIG_PROP_REPOSITORY_THREADS));
+        boolean virtualThreads = ConfigUtils.getBoolean(session, DefaultRepositoryArtifactChecker.DEFAULT_VIRTUAL_THREADS,
+                DefaultRepositoryArtifactChecker.CONFIG_PROP_VIRTUAL_THREADS);
+        ExecutorService executor = WorkerExecutors.newExecutor("reposync-listing", threads, virtualThreads);
+        try {
+            Map<String, Future<Set<String>>> listings = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Integer>> version : versions.entrySet()) {
+                ArtifactRequest request = requests.get(version.getValue().get(0));
+                RemoteRepository repository = request.getRepositories().get(0);
+                Endpoint endpoint = endpoints.computeIfAbsent(repository.getUrl(), k -> newEndpoint(session, repository));
+                listings.put(version.getKey(), executor.submit(() -> listFiles(session, endpoint, request)));
+            }
+            for (Map.Entry<String, Future<Set<String>>> listing : listings.entrySet()) {
+                List<Integer> positions = versions.get(listing.getKey());
+                Set<String> files = getListing(listing.getValue());
+                for (int idx : positions) {
+                    ArtifactRequest request = requests.get(idx);
+                    if (files != null) {
+                        String name = getFileName(endpoints.get(request.getRepositories().get(0).getUrl()), request.getArtifact());
+                        results[idx] = files.contains(name) ? present(request) : missing(request);
+                    } else if (listed.containsKey(listing.getKey())) {
+                        results[idx] = present(request);
+                    } else {
+                        delegated.add(idx);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            for (Endpoint endpoint : endpoints.values()) {
+                if (endpoint.transporter != null) {
+                    endpoint.transporter.close();
+                }
+            }
+        }
+        return delegated;
+    }
+
+    /**
+     * @return names of files in version directory of artifact, null if repository does not provide listing
+     */
+    protected Set<String> listFiles(RepositorySystemSession session, Endpoint endpoint, ArtifactRequest request) {
+        if (endpoint.transporter == null) {
+            return null;
+        }
+        String path = endpoint.layout.getLocation(toPomArtifact(request.getArtifact()), false).toString();
+        String directory = path.substring(0, path.lastIndexOf('/') + 1);
+        if ("file".equals(endpoint.repository.getProtocol())) {
+            File[] files = new File(new File(URI.create(endpoint.repository.getUrl())), directory).listFiles(File::isFile);
+            Set<String> names = new HashSet<>();
+            if (files != null) {
+                for (File file : files) {
+                    names.add(file.getName());
+                }
+            }
+            return names;
+        }
+        GetTask task = new GetTask(URI.create(directory));
+        try {
+            new ListeningTransporter(endpoint.transporter, session, endpoint.repository, request.getTrace()).get(task);
+        } catch (Exception ex) {
+            return null;
+        }
+        Set<String> names = new HashSet<>();
+        Matcher matcher = HREF.matcher(task.getDataString());
+        while (matcher.find()) {
+            String href = matcher.group(1);
+            if (href.endsWith("/")) {
+                continue;
+            }
+            try {
+                names.add(URLDecoder.decode(href.substring(href.lastIndexOf('/') + 1), "UTF-8"));
+            } catch (UnsupportedEncodingException | IllegalArgumentException ex) {
+                // not a file name
+            }
+        }
+        // page without links to files is not a listing
+        return names.isEmpty() ? null : names;
+    }
+
+    private Endpoint newEndpoint(RepositorySystemSession session, RemoteRepository repository) {
+        try {
+            return new Endpoint(repository, layoutProvider.newRepositoryLayout(session, repository),
+                    transporterProvider.newTransporter(session, repository));
+        } catch (NoRepositoryLayoutException | NoTransporterException ex) {
+            return new Endpoint(repository, null, null);
+        }
+    }
+
+    private static Set<String> getListing(Future<Set<String>> listing) {
+        try {
+            return listing.get();
+        } catch (ExecutionException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while listing directories", ex);
+        }
+    }
+
+    private static String getFileName(Endpoint endpoint, Artifact artifact) {
+        String path = endpoint.layout.getLocation(artifact, false).toString();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static Artifact toPomArtifact(Artifact artifact) {
+        return new DefaultArtifact(artifact.getGroupId(), artifact.getArtifactId(), "pom", artifact.getVersion());
+    }
+
+    private static ArtifactResult present(ArtifactRequest request) {
+        return new ArtifactResult(request)
+                .setArtifact(request.getArtifact())
+                .setRepository(request.getRepositories().get(0));
+    }
+
+    private static ArtifactResult missing(ArtifactRequest request) {
+        ArtifactResult result = new ArtifactResult(request);
+        result.addException(new ArtifactNotFoundException(request.getArtifact(), request.getRepositories().get(0)));
+        return result;
+    }
+
+    private static boolean isMissing(ArtifactResult result) {
+        if (result.getArtifact() != null) {
+            return false;
+        }
+        for (Exception exception : result.getExceptions()) {
+            if (!(exception instanceof ArtifactNotFoundException)) {
+                // unable to check pom, falling back to artifact checks
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return versions listed in metadata by metadata key, absent metadata means no versions,
+     * groupId:artifactId which metadata can't be used are not present in result
+     */
+    protected Map<String, Set<String>> getVersions(RepositorySystemSession session, Collection<? extends ArtifactRequest> requests) {
+        Map<String, MetadataRequest> metadataRequests = new LinkedHashMap<>();
+        for (ArtifactRequest request : requests) {
+            String key = getMetadataKey(request);
+            if (key == null || metadataRequests.containsKey(key)) {
+                continue;
+            }
+            Artifact artifact = request.getArtifact();
+            DefaultMetadata metadata = new DefaultMetadata(artifact.getGroupId(), artifact.getArtifactId(),
+                    MAVEN_METADATA_XML, org.eclipse.aether.metadata.Metadata.Nature.RELEASE);
+            MetadataRequest metadataRequest = new MetadataRequest(metadata, request.getRepositories().get(0), request.getRequestContext());
+            metadataRequest.setDeleteLocalCopyIfMissing(true);
+            metadataRequest.setTrace(request.getTrace());
+            metadataRequests.put(key, metadataRequest);
+        }
+
+        Map<String, Set<String>> result = new HashMap<>();
+        if (metadataRequests.isEmpty()) {
+            return result;
+        }
+
+        List<String> keys = new ArrayList<>(metadataRequests.keySet());
+        List<MetadataResult> metadataResults = repoSystem.resolveMetadata(session, metadataRequests.values());
+        for (int i = 0; i < metadataResults.size(); i++) {
+            MetadataResult metadataResult = metadataResults.get(i);
+            if (metadataResult.isMissing()) {
+                result.put(keys.get(i), Collections.emptySet());
+                continue;
+            }
+            if (!metadataResult.isResolved()) {
+                continue;
+            }
+            Set<String> listed = readVersions(metadataResult.getMetadata().getFile());
+            if (listed != null) {
+                result.put(keys.get(i), listed);
+            }
+        }
+        return result;
+    }
+
+    protected Set<String> readVersions(File file) {
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            Metadata metadata = new MetadataXpp3Reader().read(is, false);
+            Versioning versioning = metadata.getVersioning();
+            if (versioning == null) {
+                return Collections.emptySet();
+            }
+            return new HashSet<>(versioning.getVersions());
+        } catch (IOException | XmlPullParserException ex) {
+            // falling back to artifact checks
+            return null;
+        }
+    }
+
+    /**
+     * Metadata is used for release artifacts checked against single repository only
+     */
+    protected String getMetadataKey(ArtifactRequest request) {
+        Artifact artifact = request.getArtifact();
+        List<RemoteRepository> repositories = request.getRepositories();
+        if (artifact.isSnapshot() || repositories.size() != 1) {
+            return null;
+        }
+        return repositories.get(0).getUrl() + '|' + artifact.getGroupId() + ':' + artifact.getArtifactId();
+    }
+
+    protected static class Endpoint {
+
+        final RemoteRepository repository;
+
+        final RepositoryLayout layout;
+
+        final Transporter transporter;
+
+        Endpoint(RemoteRepository repository, RepositoryLayout layout, Transporter transporter) {
+            this.repository = repository;
+            this.layout = layout;
+            this.transporter = transporter;
+        }
+
+    }
+
+}
@@ -25,23 +25,48 @@ import org.apache.maven.repository.internal.ArtifactDescriptorReaderDelegate;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import tel.panfilov.maven.plugins.reposync.ArtifactKey;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static tel.panfilov.maven.plugins.reposync.Utils.getId;
-
+/**
+ * Remembers poms referenced by loaded models, whole models are not retained
+ */
 public class ModelAwareArtifactDescriptorReader extends ArtifactDescriptorReaderDelegate {
 
-    private Map<String, Model> modelMap = new HashMap<>();
+    private final Map<ArtifactKey, PomReferences> referencesMap;
+
+    public ModelAwareArtifactDescriptorReader() {
+        this(0);
+    }
+
+    /**
+     * @param maxSize maximum number of remembered models, least recently used are evicted
+     *                first, no limit is applied if the value is not positive
+     */
+    public ModelAwareArtifactDescriptorReader(int maxSize) {
+        if (maxSize > 0) {
+            referencesMap = Collections.synchronizedMap(new LinkedHashMap<ArtifactKey, PomReferences>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ArtifactKey, PomReferences> eldest) {
+                    return size() > maxSize;
+                }
+            });
+        } else {
+            referencesMap = new ConcurrentHashMap<>();
+        }
+    }
 
     public void populateResult(RepositorySystemSession session, ArtifactDescriptorResult result, Model model) {
         super.populateResult(session, result, model);
-        modelMap.put(getId(result.getArtifact()), model);
+        referencesMap.put(ArtifactKey.of(result.getArtifact()).canonical(), PomReferences.of(model));
     }
 
-    public Model getModel(Artifact artifact) {
-        return modelMap.get(getId(artifact));
+    public PomReferences getReferences(Artifact artifact) {
+        return referencesMap.get(ArtifactKey.of(artifact));
     }
 
 }
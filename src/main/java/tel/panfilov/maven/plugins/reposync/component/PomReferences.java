@@ -0,0 +1,69 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.eclipse.aether.artifact.Artifact;
+import tel.panfilov.maven.plugins.reposync.Utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Part of pom model referencing other poms: parent and imported boms
+ */
+public class PomReferences {
+
+    private final Artifact parent;
+
+    private final List<Artifact> imports;
+
+    public PomReferences(Artifact parent, List<Artifact> imports) {
+        this.parent = parent;
+        this.imports = imports;
+    }
+
+    public static PomReferences of(Model model) {
+        Artifact parent = model.getParent() == null ? null : Utils.getPomArtifact(model.getParent());
+        List<Artifact> imports = new ArrayList<>();
+        DependencyManagement dependencyManagement = model.getDependencyManagement();
+        if (dependencyManagement != null) {
+            for (Dependency dependency : dependencyManagement.getDependencies()) {
+                if ("import".equals(dependency.getScope())) {
+                    imports.add(Utils.getPomArtifact(dependency));
+                }
+            }
+        }
+        return new PomReferences(parent, imports.isEmpty() ? Collections.emptyList() : imports);
+    }
+
+    public Artifact getParent() {
+        return parent;
+    }
+
+    public List<Artifact> getImports() {
+        return imports;
+    }
+
+}
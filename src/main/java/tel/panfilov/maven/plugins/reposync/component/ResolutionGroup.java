@@ -23,7 +23,9 @@ package tel.panfilov.maven.plugins.reposync.component;
 import org.eclipse.aether.repository.RemoteRepository;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 class ResolutionGroup {
 
@@ -31,10 +33,25 @@ class ResolutionGroup {
 
     final List<ResolutionItem> items = new ArrayList<>();
 
+    /**
+     * groups which must be checked before this one, i.e. groups
+     * containing the same artifacts but for repositories with higher priority
+     */
+    final Set<ResolutionGroup> predecessors = new LinkedHashSet<>();
+
+    int level;
+
     ResolutionGroup(RemoteRepository repository) {
         this.repository = repository;
     }
 
+    void computeLevel() {
+        level = 0;
+        for (ResolutionGroup predecessor : predecessors) {
+            level = Math.max(level, predecessor.level + 1);
+        }
+    }
+
     boolean matches(RemoteRepository repo) {
         return repository.getUrl().equals(repo.getUrl())
                 && repository.getContentType().equals(repo.getContentType())
@@ -49,6 +49,22 @@ public class ResolutionItem {
 
     UpdateCheck<Artifact, ArtifactTransferException> updateCheck;
 
+    /**
+     * checksum algorithm if existence is checked by downloading checksum sidecar
+     */
+    String checksumAlgorithm;
+
+    /**
+     * checksum of artifact's file or its copy in local repository, otherwise checksum
+     * published by checksum repositories, null if none is known
+     */
+    String expectedChecksum;
+
+    /**
+     * existence check of artifact performed when checksum sidecar is not found
+     */
+    ArtifactDownload fallback;
+
     ResolutionItem(RequestTrace trace, Artifact artifact, AtomicBoolean resolved, ArtifactResult result, RemoteRepository repository) {
         this.trace = trace;
         this.artifact = artifact;
@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.graph;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencyManagement;
+import org.eclipse.aether.collection.DependencyManager;
+import org.eclipse.aether.graph.Dependency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leaves direct dependencies of the root unmanaged, dependencies of every entry are managed
+ * by manager derived as if the entry was the root of request having management of the root,
+ * dependency management of the root takes precedence over management of the entry
+ */
+public final class EntryDependencyManager implements DependencyManager {
+
+    private final DependencyManager delegate;
+
+    private final List<Dependency> managed;
+
+    public EntryDependencyManager(DependencyManager delegate) {
+        this(delegate, null);
+    }
+
+    private EntryDependencyManager(DependencyManager delegate, List<Dependency> managed) {
+        this.delegate = delegate;
+        this.managed = managed;
+    }
+
+    public DependencyManagement manageDependency(Dependency dependency) {
+        return null;
+    }
+
+    public DependencyManager deriveChildManager(DependencyCollectionContext context) {
+        if (managed == null) {
+            return new EntryDependencyManager(delegate, new ArrayList<>(context.getManagedDependencies()));
+        }
+        if (delegate == null) {
+            return null;
+        }
+        List<Dependency> merged = new ArrayList<>(managed);
+        merged.addAll(context.getManagedDependencies());
+        return delegate.deriveChildManager(new EntryContext(context, merged));
+    }
+
+    static class EntryContext implements DependencyCollectionContext {
+
+        private final RepositorySystemSession session;
+
+        private final Artifact artifact;
+
+        private final Dependency dependency;
+
+        private final List<Dependency> managed;
+
+        EntryContext(DependencyCollectionContext context, List<Dependency> managed) {
+            this.session = context.getSession();
+            this.artifact = context.getArtifact();
+            this.dependency = context.getDependency();
+            this.managed = managed;
+        }
+
+        @Override
+        public RepositorySystemSession getSession() {
+            return session;
+        }
+
+        @Override
+        public Artifact getArtifact() {
+            return artifact;
+        }
+
+        @Override
+        public Dependency getDependency() {
+            return dependency;
+        }
+
+        @Override
+        public List<Dependency> getManagedDependencies() {
+            return managed;
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.graph;
+
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.Dependency;
+
+/**
+ * Selects all direct dependencies of the root, so they become roots of their own graphs,
+ * dependencies of every entry are selected by selector derived as if the entry was the root
+ */
+public final class EntryDependencySelector implements DependencySelector {
+
+    private final DependencySelector delegate;
+
+    private final boolean entries;
+
+    public EntryDependencySelector(DependencySelector delegate) {
+        this(delegate, false);
+    }
+
+    private EntryDependencySelector(DependencySelector delegate, boolean entries) {
+        this.delegate = delegate;
+        this.entries = entries;
+    }
+
+    public boolean selectDependency(Dependency dependency) {
+        return true;
+    }
+
+    public DependencySelector deriveChildSelector(DependencyCollectionContext context) {
+        if (!entries) {
+            return new EntryDependencySelector(delegate, true);
+        }
+        return delegate == null ? null : delegate.deriveChildSelector(context);
+    }
+
+}
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.graph;
+
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencyTraverser;
+import org.eclipse.aether.graph.Dependency;
+
+/**
+ * Traverses all direct dependencies of the root, dependencies of every entry are
+ * traversed by traverser derived as if the entry was the root
+ */
+public final class EntryDependencyTraverser implements DependencyTraverser {
+
+    private final DependencyTraverser delegate;
+
+    private final boolean entries;
+
+    public EntryDependencyTraverser(DependencyTraverser delegate) {
+        this(delegate, false);
+    }
+
+    private EntryDependencyTraverser(DependencyTraverser delegate, boolean entries) {
+        this.delegate = delegate;
+        this.entries = entries;
+    }
+
+    public boolean traverseDependency(Dependency dependency) {
+        return true;
+    }
+
+    public DependencyTraverser deriveChildTraverser(DependencyCollectionContext context) {
+        if (!entries) {
+            return new EntryDependencyTraverser(delegate, true);
+        }
+        return delegate == null ? null : delegate.deriveChildTraverser(context);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.graph;
+
+import org.eclipse.aether.RepositoryException;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.collection.DependencyGraphTransformationContext;
+import org.eclipse.aether.collection.DependencyGraphTransformer;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.DependencyNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transforms graph of every direct dependency of the root separately, as if the entry was
+ * the root of its own graph. Collector shares nodes and lists of children between graphs of
+ * entries, and transformers modify them in place, so every graph is transformed as a copy
+ */
+public final class EntryGraphTransformer implements DependencyGraphTransformer {
+
+    private final DependencyGraphTransformer delegate;
+
+    public EntryGraphTransformer(DependencyGraphTransformer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public DependencyNode transformGraph(DependencyNode node, DependencyGraphTransformationContext context) throws RepositoryException {
+        if (delegate == null) {
+            return node;
+        }
+        List<DependencyNode> entries = new ArrayList<>();
+        for (DependencyNode entry : node.getChildren()) {
+            DependencyNode copy = copy(entry, new IdentityHashMap<>(), new IdentityHashMap<>());
+            entries.add(delegate.transformGraph(copy, new EntryContext(context.getSession())));
+        }
+        node.setChildren(entries);
+        return node;
+    }
+
+    /**
+     * Copies graph keeping cycles and lists of children shared by nodes
+     */
+    private static DependencyNode copy(DependencyNode node, Map<DependencyNode, DependencyNode> nodes, Map<List<DependencyNode>, List<DependencyNode>> lists) {
+        DependencyNode copy = nodes.get(node);
+        if (copy != null) {
+            return copy;
+        }
+        copy = new DefaultDependencyNode(node);
+        nodes.put(node, copy);
+        List<DependencyNode> children = lists.get(node.getChildren());
+        if (children == null) {
+            children = new ArrayList<>(node.getChildren().size());
+            lists.put(node.getChildren(), children);
+            for (DependencyNode child : node.getChildren()) {
+                children.add(copy(child, nodes, lists));
+            }
+        }
+        copy.setChildren(children);
+        return copy;
+    }
+
+    static class EntryContext implements DependencyGraphTransformationContext {
+
+        private final RepositorySystemSession session;
+
+        private final Map<Object, Object> values = new HashMap<>();
+
+        EntryContext(RepositorySystemSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public RepositorySystemSession getSession() {
+            return session;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return values.get(key);
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            return values.put(key, value);
+        }
+
+    }
+
+}
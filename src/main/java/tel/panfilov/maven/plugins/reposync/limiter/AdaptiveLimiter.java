@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.limiter;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits number of concurrent requests to a repository by AIMD window:
+ * the window grows by one request per window of fast successful requests
+ * and halves on errors or slow responses, at most once per slow threshold,
+ * so a burst of failures caused by the same overload shrinks it only once.
+ */
+public class AdaptiveLimiter {
+
+    private final String repository;
+
+    private final int maxLimit;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * requests are admitted from transfer listeners running in virtual threads,
+     * unlike monitors waiting on condition does not pin their carriers
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    private double window;
+
+    private int inFlight;
+
+    private int peak;
+
+    private int decreases;
+
+    private long lastDecrease;
+
+    /**
+     * @param initialLimit  initial number of concurrent requests
+     * @param maxLimit      maximum number of concurrent requests
+     * @param slowThreshold requests taking longer than specified number of milliseconds shrink the window
+     */
+    public AdaptiveLimiter(String repository, int initialLimit, int maxLimit, long slowThreshold) {
+        this.repository = repository;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.slowThresholdNanos = slowThreshold * 1_000_000L;
+        this.window = Math.max(1, Math.min(initialLimit, this.maxLimit));
+        this.lastDecrease = System.nanoTime() - slowThresholdNanos;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    /**
+     * Blocks until the number of requests in flight fits the window
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= getLimit()) {
+                released.await();
+            }
+            inFlight++;
+            peak = Math.max(peak, inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param nanos      duration of completed request
+     * @param overloaded whether request failed in a way indicating overload of repository
+     */
+    public void release(long nanos, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (overloaded || nanos > slowThresholdNanos) {
+                long now = System.nanoTime();
+                if (now - lastDecrease >= slowThresholdNanos) {
+                    window = Math.max(1, window / 2);
+                    lastDecrease = now;
+                    decreases++;
+                }
+            } else if (inFlight + 1 >= getLimit()) {
+                // the window grows only while it is fully used
+                window = Math.min(maxLimit, window + 1 / window);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) window;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPeak() {
+        lock.lock();
+        try {
+            return peak;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getDecreases() {
+        lock.lock();
+        try {
+            return decreases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.limiter;
+
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.transfer.TransferCancelledException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Applies per-repository {@link AdaptiveLimiter} to every transfer made through
+ * the session, i.e. to existence checks, downloads and uploads: transfer is
+ * blocked when initiated until the limiter of its repository admits it.
+ */
+public class LimitingTransferListener extends AbstractTransferListener {
+
+    /**
+     * status codes and reason phrases as reported by http transporter and wagon
+     */
+    private static final Pattern THROTTLED = Pattern.compile("code(?: is)?: (?:429|503)|Too Many Requests|Service Unavailable");
+
+    private final int initialLimit;
+
+    private final int maxLimit;
+
+    private final long slowThreshold;
+
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final Map<TransferResource, Admission> admitted = new ConcurrentHashMap<>();
+
+    public LimitingTransferListener(int initialLimit, int maxLimit, long slowThreshold) {
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.slowThreshold = slowThreshold;
+    }
+
+    public List<AdaptiveLimiter> getLimiters() {
+        return new ArrayList<>(limiters.values());
+    }
+
+    @Override
+    public void transferInitiated(TransferEvent event) throws TransferCancelledException {
+        TransferResource resource = event.getResource();
+        AdaptiveLimiter limiter = getLimiter(resource.getRepositoryUrl());
+        try {
+            limiter.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransferCancelledException("Interrupted while waiting for " + resource.getRepositoryUrl());
+        }
+        admitted.put(resource, new Admission(limiter, System.nanoTime()));
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        release(event, false);
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        release(event, isOverloaded(event.getException()));
+    }
+
+    private void release(TransferEvent event, boolean overloaded) {
+        Admission admission = admitted.remove(event.getResource());
+        if (admission != null) {
+            admission.limiter.release(System.nanoTime() - admission.started, overloaded);
+        }
+    }
+
+    private AdaptiveLimiter getLimiter(String url) {
+        String key = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        return limiters.computeIfAbsent(key, k -> new AdaptiveLimiter(k, initialLimit, maxLimit, slowThreshold));
+    }
+
+    /**
+     * Missing resources are expected during existence checks, while throttling
+     * responses, timeouts and refused connections indicate overloaded repository
+     */
+    protected boolean isOverloaded(Exception exception) {
+        if (exception == null || exception instanceof ArtifactNotFoundException || exception instanceof MetadataNotFoundException) {
+            return false;
+        }
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof ConnectException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null && THROTTLED.matcher(message).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Admission {
+
+        final AdaptiveLimiter limiter;
+
+        final long started;
+
+        Admission(AdaptiveLimiter limiter, long started) {
+            this.limiter = limiter;
+            this.started = started;
+        }
+
+    }
+
+}
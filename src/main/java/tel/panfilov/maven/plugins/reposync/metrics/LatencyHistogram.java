@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with exponential buckets, upper bounds are 1, 2, 4, ... 65536 ms,
+ * the last bucket counts everything slower
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 18;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void update(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = millis < 1 ? 0 : 64 - Long.numberOfLeadingZeros(millis);
+        counts.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public double getAverageMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : toMillis(totalNanos.get()) / count;
+    }
+
+    public double getMaxMillis() {
+        return toMillis(maxNanos.get());
+    }
+
+    /**
+     * @param quantile quantile between 0 and 1
+     * @return upper bound of the bucket containing the quantile, but not more than maximum
+     */
+    public double getPercentileMillis(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(getBucketBound(i), getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * @return upper bound of the bucket in milliseconds, {@code -1} for the last one
+     */
+    public static long getBucketBound(int bucket) {
+        return bucket < BUCKETS - 1 ? 1L << bucket : -1;
+    }
+
+    public static int getBucketCount() {
+        return BUCKETS;
+    }
+
+    public long getBucket(int bucket) {
+        return counts.get(bucket);
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.repository.ArtifactRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Counts artifacts downloaded from and deployed to remote repositories,
+ * as well as invalid descriptors and metadata files
+ */
+public class MetricsRepositoryListener extends AbstractRepositoryListener {
+
+    private final SyncMetrics metrics;
+
+    public MetricsRepositoryListener(SyncMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void artifactDownloaded(RepositoryEvent event) {
+        RepositoryMetrics repository = getRepository(event);
+        if (repository != null && event.getException() == null) {
+            repository.artifactDownloaded();
+        }
+    }
+
+    @Override
+    public void artifactDeployed(RepositoryEvent event) {
+        RepositoryMetrics repository = getRepository(event);
+        if (repository != null && event.getException() == null) {
+            repository.artifactDeployed();
+        }
+    }
+
+    @Override
+    public void artifactDescriptorInvalid(RepositoryEvent event) {
+        invalid(event);
+    }
+
+    @Override
+    public void metadataInvalid(RepositoryEvent event) {
+        invalid(event);
+    }
+
+    private void invalid(RepositoryEvent event) {
+        RepositoryMetrics repository = getRepository(event);
+        if (repository != null) {
+            repository.invalid();
+        }
+    }
+
+    private RepositoryMetrics getRepository(RepositoryEvent event) {
+        ArtifactRepository repository = event.getRepository();
+        if (repository instanceof RemoteRepository) {
+            return metrics.repository(((RemoteRepository) repository).getUrl());
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records latency, size and outcome of every transfer made through the session,
+ * transfers are accounted to the repository and to the phase found in request trace
+ */
+public class MetricsTransferListener extends AbstractTransferListener {
+
+    private final SyncMetrics metrics;
+
+    private final Map<TransferResource, Long> started = new ConcurrentHashMap<>();
+
+    public MetricsTransferListener(SyncMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void transferInitiated(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        started.put(resource, System.nanoTime());
+        getRepositoryTransfers(resource).started();
+        TransferMetrics phaseTransfers = getPhaseTransfers(resource);
+        if (phaseTransfers != null) {
+            phaseTransfers.started();
+        }
+    }
+
+    @Override
+    public void transferCorrupted(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        getRepositoryTransfers(resource).corrupted();
+        TransferMetrics phaseTransfers = getPhaseTransfers(resource);
+        if (phaseTransfers != null) {
+            phaseTransfers.corrupted();
+        }
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        Long start = started.remove(resource);
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        boolean slow = metrics.slowTransfer(resource, nanos);
+        getRepositoryTransfers(resource).succeeded(nanos, event.getTransferredBytes(), slow);
+        TransferMetrics phaseTransfers = getPhaseTransfers(resource);
+        if (phaseTransfers != null) {
+            phaseTransfers.succeeded(nanos, event.getTransferredBytes(), slow);
+        }
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        Long start = started.remove(resource);
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        boolean slow = metrics.slowTransfer(resource, nanos);
+        getRepositoryTransfers(resource).failed(nanos, slow);
+        TransferMetrics phaseTransfers = getPhaseTransfers(resource);
+        if (phaseTransfers != null) {
+            phaseTransfers.failed(nanos, slow);
+        }
+    }
+
+    private TransferMetrics getRepositoryTransfers(TransferResource resource) {
+        return metrics.repository(resource.getRepositoryUrl()).getTransfers();
+    }
+
+    private TransferMetrics getPhaseTransfers(TransferResource resource) {
+        PhaseMetrics phase = SyncMetrics.getPhase(resource.getTrace());
+        return phase == null ? null : phase.getTransfers();
+    }
+
+}
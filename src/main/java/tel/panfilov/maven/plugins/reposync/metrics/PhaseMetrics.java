@@ -0,0 +1,130 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import org.eclipse.aether.RequestTrace;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time, number of artifacts and bytes processed by a phase of synchronisation,
+ * a phase may be entered many times and concurrently, e.g. by pipeline stages
+ */
+public class PhaseMetrics {
+
+    private final String name;
+
+    private final AtomicLong artifacts = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong busyNanos = new AtomicLong();
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private final TransferMetrics transfers = new TransferMetrics();
+
+    private long firstStart = Long.MAX_VALUE;
+
+    private long lastEnd = Long.MIN_VALUE;
+
+    PhaseMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return start time to be passed to {@link #end(long)}
+     */
+    public long begin() {
+        long started = System.nanoTime();
+        synchronized (this) {
+            firstStart = Math.min(firstStart, started);
+        }
+        return started;
+    }
+
+    public void end(long started) {
+        long ended = System.nanoTime();
+        busyNanos.addAndGet(ended - started);
+        synchronized (this) {
+            lastEnd = Math.max(lastEnd, ended);
+        }
+    }
+
+    public void addArtifacts(long count) {
+        artifacts.addAndGet(count);
+    }
+
+    public void addBytes(long count) {
+        bytes.addAndGet(count);
+    }
+
+    public void addRetries(long count) {
+        retries.addAndGet(count);
+    }
+
+    /**
+     * @return trace to attach to requests, so transfers made by the requests are attributed to the phase
+     */
+    public RequestTrace newTrace() {
+        return new RequestTrace(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getArtifacts() {
+        return artifacts.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public TransferMetrics getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * @return time between the first start and the last end of the phase
+     */
+    public synchronized double getWallMillis() {
+        return lastEnd < firstStart ? 0 : LatencyHistogram.toMillis(lastEnd - firstStart);
+    }
+
+    /**
+     * @return time spent in the phase summed over all threads
+     */
+    public double getBusyMillis() {
+        return LatencyHistogram.toMillis(busyNanos.get());
+    }
+
+    public double getArtifactsPerSecond() {
+        double wall = getWallMillis();
+        return wall == 0 ? 0 : getArtifacts() * 1000 / wall;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfers made to a single repository and repository events related to it
+ */
+public class RepositoryMetrics {
+
+    private final String url;
+
+    private final TransferMetrics transfers = new TransferMetrics();
+
+    private final AtomicLong downloaded = new AtomicLong();
+
+    private final AtomicLong deployed = new AtomicLong();
+
+    private final AtomicLong invalid = new AtomicLong();
+
+    RepositoryMetrics(String url) {
+        this.url = url;
+    }
+
+    void artifactDownloaded() {
+        downloaded.incrementAndGet();
+    }
+
+    void artifactDeployed() {
+        deployed.incrementAndGet();
+    }
+
+    void invalid() {
+        invalid.incrementAndGet();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public TransferMetrics getTransfers() {
+        return transfers;
+    }
+
+    public long getDownloaded() {
+        return downloaded.get();
+    }
+
+    public long getDeployed() {
+        return deployed.get();
+    }
+
+    /**
+     * @return number of invalid descriptors and metadata files
+     */
+    public long getInvalid() {
+        return invalid.get();
+    }
+
+}
@@ -0,0 +1,275 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing and throughput of synchronisation phases and of transfers
+ * made to each repository
+ */
+public class SyncMetrics {
+
+    private static final int MAX_SLOW_TRANSFERS = 10;
+
+    private final Map<String, PhaseMetrics> phases = new LinkedHashMap<>();
+
+    private final Map<String, RepositoryMetrics> repositories = new LinkedHashMap<>();
+
+    private final List<SlowTransfer> slowTransfers = new ArrayList<>();
+
+    private final MetricsTransferListener transferListener = new MetricsTransferListener(this);
+
+    private final MetricsRepositoryListener repositoryListener = new MetricsRepositoryListener(this);
+
+    private volatile long slowTransferNanos = Long.MAX_VALUE;
+
+    /**
+     * @param millis transfers taking longer are reported as outliers
+     */
+    public void setSlowTransferThreshold(long millis) {
+        this.slowTransferNanos = millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : Long.MAX_VALUE;
+    }
+
+    public synchronized PhaseMetrics phase(String name) {
+        return phases.computeIfAbsent(name, PhaseMetrics::new);
+    }
+
+    public synchronized RepositoryMetrics repository(String url) {
+        String key = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        return repositories.computeIfAbsent(key, RepositoryMetrics::new);
+    }
+
+    public synchronized List<PhaseMetrics> getPhases() {
+        return new ArrayList<>(phases.values());
+    }
+
+    public synchronized List<RepositoryMetrics> getRepositories() {
+        return new ArrayList<>(repositories.values());
+    }
+
+    public synchronized List<SlowTransfer> getSlowTransfers() {
+        return new ArrayList<>(slowTransfers);
+    }
+
+    public MetricsTransferListener getTransferListener() {
+        return transferListener;
+    }
+
+    public MetricsRepositoryListener getRepositoryListener() {
+        return repositoryListener;
+    }
+
+    /**
+     * @return phase the trace originates from, {@code null} if none
+     */
+    public static PhaseMetrics getPhase(RequestTrace trace) {
+        for (RequestTrace current = trace; current != null; current = current.getParent()) {
+            if (current.getData() instanceof PhaseMetrics) {
+                return (PhaseMetrics) current.getData();
+            }
+        }
+        return null;
+    }
+
+    boolean slowTransfer(TransferResource resource, long nanos) {
+        if (nanos < slowTransferNanos) {
+            return false;
+        }
+        synchronized (this) {
+            slowTransfers.add(new SlowTransfer(resource.getRepositoryUrl() + resource.getResourceName(), nanos));
+            slowTransfers.sort(Comparator.comparingLong((SlowTransfer t) -> t.nanos).reversed());
+            if (slowTransfers.size() > MAX_SLOW_TRANSFERS) {
+                slowTransfers.remove(MAX_SLOW_TRANSFERS);
+            }
+        }
+        return true;
+    }
+
+    public void report(Log log) {
+        List<PhaseMetrics> phases = getPhases();
+        if (!phases.isEmpty()) {
+            log.info(format("%-12s %12s %12s %10s %12s %14s %8s",
+                    "Phase", "Wall, ms", "Busy, ms", "Artifacts", "Artifacts/s", "Bytes", "Retries"));
+            for (PhaseMetrics phase : phases) {
+                log.info(format("%-12s %12.1f %12.1f %10d %12.1f %14d %8d",
+                        phase.getName(), phase.getWallMillis(), phase.getBusyMillis(),
+                        phase.getArtifacts(), phase.getArtifactsPerSecond(), phase.getBytes(), phase.getRetries()));
+            }
+            log.info(transferHeader("Phase"));
+            for (PhaseMetrics phase : phases) {
+                if (phase.getTransfers().getRequests() > 0) {
+                    log.info(transferRow(phase.getName(), phase.getTransfers()));
+                }
+            }
+        }
+        List<RepositoryMetrics> repositories = getRepositories();
+        if (!repositories.isEmpty()) {
+            log.info(transferHeader("Repository"));
+            for (RepositoryMetrics repository : repositories) {
+                log.info(transferRow(repository.getUrl(), repository.getTransfers()));
+            }
+            log.info(format("%10s %10s %10s  %s", "Downloaded", "Deployed", "Invalid", "Repository"));
+            for (RepositoryMetrics repository : repositories) {
+                log.info(format("%10d %10d %10d  %s", repository.getDownloaded(), repository.getDeployed(),
+                        repository.getInvalid(), repository.getUrl()));
+            }
+        }
+        List<SlowTransfer> slowTransfers = getSlowTransfers();
+        if (!slowTransfers.isEmpty()) {
+            log.info("Slowest transfers:");
+            for (SlowTransfer transfer : slowTransfers) {
+                log.info(format("%10.1f ms  %s", transfer.getMillis(), transfer.getResource()));
+            }
+        }
+    }
+
+    private static String transferHeader(String name) {
+        return format("%8s %8s %8s %6s %14s %10s %9s %9s %9s %8s  %s", "Requests", "Failures", "Corrupt",
+                "Slow", "Bytes", "KiB/s", "p50, ms", "p99, ms", "Max, ms", "Inflight", name);
+    }
+
+    private static String transferRow(String name, TransferMetrics transfers) {
+        LatencyHistogram latency = transfers.getLatency();
+        return format("%8d %8d %8d %6d %14d %10.1f %9.1f %9.1f %9.1f %8d  %s",
+                transfers.getRequests(), transfers.getFailures(), transfers.getCorrupted(), transfers.getSlow(),
+                transfers.getBytes(), transfers.getBytesPerSecond() / 1024, latency.getPercentileMillis(0.5),
+                latency.getPercentileMillis(0.99), latency.getMaxMillis(), transfers.getMaxInFlight(), name);
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"phases\": [");
+            String separator = "\n";
+            for (PhaseMetrics phase : getPhases()) {
+                writer.write(separator);
+                writer.write(format("    {\"name\": %s, \"wallMillis\": %.3f, \"busyMillis\": %.3f, "
+                                + "\"artifacts\": %d, \"artifactsPerSecond\": %.3f, \"bytes\": %d, \"retries\": %d, "
+                                + "\"transfers\": %s}",
+                        quote(phase.getName()), phase.getWallMillis(), phase.getBusyMillis(),
+                        phase.getArtifacts(), phase.getArtifactsPerSecond(), phase.getBytes(), phase.getRetries(),
+                        toJson(phase.getTransfers())));
+                separator = ",\n";
+            }
+            writer.write("\n  ],\n  \"repositories\": [");
+            separator = "\n";
+            for (RepositoryMetrics repository : getRepositories()) {
+                writer.write(separator);
+                writer.write(format("    {\"url\": %s, \"downloaded\": %d, \"deployed\": %d, \"invalid\": %d, "
+                                + "\"transfers\": %s}",
+                        quote(repository.getUrl()), repository.getDownloaded(), repository.getDeployed(),
+                        repository.getInvalid(), toJson(repository.getTransfers())));
+                separator = ",\n";
+            }
+            writer.write("\n  ],\n  \"slowTransfers\": [");
+            separator = "\n";
+            for (SlowTransfer transfer : getSlowTransfers()) {
+                writer.write(separator);
+                writer.write(format("    {\"resource\": %s, \"millis\": %.3f}",
+                        quote(transfer.getResource()), transfer.getMillis()));
+                separator = ",\n";
+            }
+            writer.write("\n  ]\n}\n");
+        }
+    }
+
+    private static String toJson(TransferMetrics transfers) {
+        LatencyHistogram latency = transfers.getLatency();
+        StringBuilder result = new StringBuilder();
+        result.append(format("{\"requests\": %d, \"failures\": %d, \"corrupted\": %d, \"slow\": %d, "
+                        + "\"bytes\": %d, \"bytesPerSecond\": %.3f, \"maxInFlight\": %d, "
+                        + "\"latency\": {\"averageMillis\": %.3f, \"p50Millis\": %.3f, \"p99Millis\": %.3f, "
+                        + "\"maxMillis\": %.3f, \"buckets\": [",
+                transfers.getRequests(), transfers.getFailures(), transfers.getCorrupted(), transfers.getSlow(),
+                transfers.getBytes(), transfers.getBytesPerSecond(), transfers.getMaxInFlight(),
+                latency.getAverageMillis(), latency.getPercentileMillis(0.5), latency.getPercentileMillis(0.99),
+                latency.getMaxMillis()));
+        for (int i = 0; i < LatencyHistogram.getBucketCount(); i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            long bound = LatencyHistogram.getBucketBound(i);
+            result.append(format("{\"le\": %s, \"count\": %d}",
+                    bound < 0 ? "null" : String.valueOf(bound), latency.getBucket(i)));
+        }
+        return result.append("]}}").toString();
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+
+    static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    public static class SlowTransfer {
+
+        private final String resource;
+
+        private final long nanos;
+
+        SlowTransfer(String resource, long nanos) {
+            this.resource = resource;
+            this.nanos = nanos;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+
+        public double getMillis() {
+            return LatencyHistogram.toMillis(nanos);
+        }
+
+    }
+
+}
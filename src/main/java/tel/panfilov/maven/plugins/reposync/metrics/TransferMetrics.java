@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of transfers, either made to single repository or made by single phase
+ */
+public class TransferMetrics {
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong corrupted = new AtomicLong();
+
+    private final AtomicLong slow = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong transferNanos = new AtomicLong();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void started() {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    void succeeded(long nanos, long transferred, boolean outlier) {
+        finished(nanos, outlier);
+        bytes.addAndGet(transferred);
+    }
+
+    void failed(long nanos, boolean outlier) {
+        finished(nanos, outlier);
+        failures.incrementAndGet();
+    }
+
+    void corrupted() {
+        corrupted.incrementAndGet();
+    }
+
+    private void finished(long nanos, boolean outlier) {
+        inFlight.decrementAndGet();
+        requests.incrementAndGet();
+        transferNanos.addAndGet(nanos);
+        latency.update(nanos);
+        if (outlier) {
+            slow.incrementAndGet();
+        }
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return number of checksum failures
+     */
+    public long getCorrupted() {
+        return corrupted.get();
+    }
+
+    /**
+     * @return number of transfers slower than configured threshold
+     */
+    public long getSlow() {
+        return slow.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return bytes transferred per second of transfer time, concurrent transfers are not summed up
+     */
+    public double getBytesPerSecond() {
+        long nanos = transferNanos.get();
+        return nanos == 0 ? 0 : bytes.get() * 1e9 / nanos;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+}
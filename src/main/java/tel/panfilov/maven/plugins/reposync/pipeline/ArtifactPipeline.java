@@ -0,0 +1,214 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.pipeline;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.eclipse.aether.artifact.Artifact;
+import tel.panfilov.maven.plugins.reposync.WorkerExecutors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams batches of artifacts through a chain of stages, every stage has
+ * its own workers and bounded input queue, so upstream stages get blocked
+ * when downstream ones do not keep up.
+ */
+public class ArtifactPipeline {
+
+    private static final List<Artifact> END = Collections.unmodifiableList(new ArrayList<>());
+
+    private final int queueSize;
+
+    private final List<StageWorkers> stages = new ArrayList<>();
+
+    private final List<Artifact> processed = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private boolean virtualThreads;
+
+    public ArtifactPipeline(int queueSize) {
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    /**
+     * @param virtualThreads whether stage workers run in virtual threads if supported
+     */
+    public ArtifactPipeline setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    public ArtifactPipeline addStage(String name, int workers, ArtifactStage stage) {
+        stages.add(new StageWorkers(name, Math.max(1, workers), stage, new ArrayBlockingQueue<>(queueSize)));
+        return this;
+    }
+
+    /**
+     * @param batches batches of artifacts to feed the first stage with
+     * @return artifacts returned by the last stage
+     */
+    public List<Artifact> execute(Iterable<List<Artifact>> batches) throws MojoExecutionException, MojoFailureException {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("No stages defined");
+        }
+        List<ExecutorService> executors = new ArrayList<>();
+        try {
+            for (int i = 0; i < stages.size(); i++) {
+                StageWorkers stage = stages.get(i);
+                StageWorkers next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+                ExecutorService executor = WorkerExecutors.newExecutor("reposync-" + stage.name, stage.workers, virtualThreads);
+                executors.add(executor);
+                for (int w = 0; w < stage.workers; w++) {
+                    executor.execute(() -> work(stage, next));
+                }
+            }
+            StageWorkers first = stages.get(0);
+            for (List<Artifact> batch : batches) {
+                if (failure.get() != null) {
+                    break;
+                }
+                if (!batch.isEmpty()) {
+                    first.queue.put(batch);
+                }
+            }
+            first.queue.put(END);
+            for (ExecutorService executor : executors) {
+                executor.shutdown();
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    // waiting for stage to complete
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, ex);
+        } finally {
+            for (ExecutorService executor : executors) {
+                executor.shutdownNow();
+            }
+        }
+        rethrow(failure.get());
+        return new ArrayList<>(processed);
+    }
+
+    private void work(StageWorkers stage, StageWorkers next) {
+        try {
+            while (true) {
+                List<Artifact> batch = stage.queue.take();
+                if (batch == END) {
+                    stage.queue.put(END);
+                    break;
+                }
+                if (failure.get() != null) {
+                    // draining queue to unblock upstream stages
+                    continue;
+                }
+                try {
+                    List<Artifact> result = stage.stage.process(batch);
+                    if (result == null || result.isEmpty()) {
+                        continue;
+                    }
+                    if (next == null) {
+                        processed.addAll(result);
+                    } else {
+                        next.queue.put(result);
+                    }
+                } catch (MojoExecutionException | MojoFailureException | RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                } catch (Error err) {
+                    // worker keeps draining queue, error is rethrown by execute()
+                    failure.compareAndSet(null, err);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, ex);
+        } catch (Error err) {
+            failure.compareAndSet(null, err);
+            throw err;
+        } finally {
+            // downstream stage must complete even if worker dies
+            if (stage.active.decrementAndGet() == 0 && next != null) {
+                putEnd(next);
+            }
+        }
+    }
+
+    private void putEnd(StageWorkers stage) {
+        try {
+            stage.queue.put(END);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, ex);
+        }
+    }
+
+    private static void rethrow(Throwable ex) throws MojoExecutionException, MojoFailureException {
+        if (ex == null) {
+            return;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        if (ex instanceof MojoExecutionException) {
+            throw (MojoExecutionException) ex;
+        }
+        if (ex instanceof MojoFailureException) {
+            throw (MojoFailureException) ex;
+        }
+        if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        }
+        throw new MojoExecutionException("Pipeline execution interrupted", ex);
+    }
+
+    static class StageWorkers {
+
+        final String name;
+
+        final int workers;
+
+        final ArtifactStage stage;
+
+        final BlockingQueue<List<Artifact>> queue;
+
+        final AtomicInteger active;
+
+        StageWorkers(String name, int workers, ArtifactStage stage, BlockingQueue<List<Artifact>> queue) {
+            this.name = name;
+            this.workers = workers;
+            this.stage = stage;
+            this.queue = queue;
+            this.active = new AtomicInteger(workers);
+        }
+
+    }
+
+}
@@ -0,0 +1,246 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.pipeline;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.deployment.DeployRequest;
+import org.eclipse.aether.deployment.DeploymentException;
+import org.eclipse.aether.repository.RemoteRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deploys batches of artifacts, every batch is deployed by a separate
+ * {@link DeployRequest} and retried on failure. Batches sharing
+ * groupId:artifactId are never deployed concurrently, otherwise
+ * concurrent deployments would overwrite each other's maven-metadata.xml
+ */
+public class BatchDeployer {
+
+    private final RepositorySystem repoSystem;
+
+    private final RepositorySystemSession session;
+
+    private final RemoteRepository repository;
+
+    private final int retries;
+
+    private final Log log;
+
+    private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger retried = new AtomicInteger();
+
+    private RequestTrace trace;
+
+    private Listener listener;
+
+    private boolean virtualThreads;
+
+    public BatchDeployer(RepositorySystem repoSystem, RepositorySystemSession session, RemoteRepository repository, int retries, Log log) {
+        this.repoSystem = repoSystem;
+        this.session = session;
+        this.repository = repository;
+        this.retries = Math.max(0, retries);
+        this.log = log;
+    }
+
+    /**
+     * @param trace trace to attach to deploy requests
+     */
+    public BatchDeployer setTrace(RequestTrace trace) {
+        this.trace = trace;
+        return this;
+    }
+
+    /**
+     * @param listener listener to notify about deployed artifacts
+     */
+    public BatchDeployer setListener(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * @param virtualThreads whether batches are deployed in virtual threads if supported
+     */
+    public BatchDeployer setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * @return number of deploy requests retried so far
+     */
+    public int getRetries() {
+        return retried.get();
+    }
+
+    public void deploy(List<Artifact> batch) throws MojoExecutionException {
+        List<Lock> acquired = lock(batch);
+        try {
+            for (List<Artifact> artifacts : splitVersions(batch)) {
+                if (listener != null) {
+                    artifacts = listener.deploying(artifacts);
+                }
+                deployWithRetries(artifacts);
+                if (listener != null) {
+                    listener.deployed(artifacts);
+                }
+            }
+        } finally {
+            for (Lock lock : acquired) {
+                lock.unlock();
+            }
+        }
+    }
+
+    protected void deployWithRetries(List<Artifact> artifacts) throws MojoExecutionException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                DeployRequest deployRequest = new DeployRequest();
+                deployRequest.setRepository(repository);
+                deployRequest.setArtifacts(artifacts);
+                deployRequest.setTrace(trace);
+                repoSystem.deploy(session, deployRequest);
+                return;
+            } catch (DeploymentException ex) {
+                if (attempt >= retries) {
+                    throw new MojoExecutionException("Couldn't deploy artifacts", ex);
+                }
+                log.warn("Failed to deploy batch of " + artifacts.size() + " artifacts, retrying: " + ex.getMessage());
+                retried.incrementAndGet();
+                pause(attempt + 1);
+            }
+        }
+    }
+
+    /**
+     * Deploys batches using specified number of threads, failure of a batch
+     * does not prevent other batches from being deployed
+     */
+    public void deploy(List<List<Artifact>> batches, int threads) throws MojoExecutionException, MojoFailureException {
+        List<MojoExecutionException> failures = Collections.synchronizedList(new ArrayList<>());
+        new ArtifactPipeline(threads)
+                .setVirtualThreads(virtualThreads)
+                .addStage("deploy", threads, batch -> {
+                    try {
+                        deploy(batch);
+                        return batch;
+                    } catch (MojoExecutionException ex) {
+                        log.error("Failed to deploy " + batch, ex);
+                        failures.add(ex);
+                        return Collections.emptyList();
+                    }
+                })
+                .execute(batches);
+        if (!failures.isEmpty()) {
+            throw new MojoExecutionException("Failed to deploy " + failures.size() + " of " + batches.size() + " batches", failures.get(0));
+        }
+    }
+
+    /**
+     * Maven metadata generators register only the first version of groupId:artifactId
+     * deployed by single request, so different versions are deployed by separate requests
+     */
+    private static List<List<Artifact>> splitVersions(List<Artifact> batch) {
+        List<List<Artifact>> result = new ArrayList<>();
+        List<Map<String, String>> versions = new ArrayList<>();
+        for (Artifact artifact : batch) {
+            String key = artifact.getGroupId() + ':' + artifact.getArtifactId();
+            int idx = 0;
+            while (idx < versions.size()) {
+                String version = versions.get(idx).putIfAbsent(key, artifact.getBaseVersion());
+                if (version == null || version.equals(artifact.getBaseVersion())) {
+                    break;
+                }
+                idx++;
+            }
+            if (idx == versions.size()) {
+                Map<String, String> round = new HashMap<>();
+                round.put(key, artifact.getBaseVersion());
+                versions.add(round);
+                result.add(new ArrayList<>());
+            }
+            result.get(idx).add(artifact);
+        }
+        return result;
+    }
+
+    private List<Lock> lock(List<Artifact> batch) {
+        // consistent order prevents deadlocks
+        Set<String> keys = new TreeSet<>();
+        for (Artifact artifact : batch) {
+            keys.add(artifact.getGroupId() + ':' + artifact.getArtifactId());
+        }
+        List<Lock> acquired = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Lock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+            lock.lock();
+            acquired.add(lock);
+        }
+        return acquired;
+    }
+
+    /**
+     * Receives artifacts right after they get deployed
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @return artifacts to deploy, e.g. with files downloaded again
+         */
+        default List<Artifact> deploying(List<Artifact> artifacts) throws MojoExecutionException {
+            return artifacts;
+        }
+
+        void deployed(List<Artifact> artifacts) throws MojoExecutionException;
+
+    }
+
+    private void pause(int attempt) throws MojoExecutionException {
+        try {
+            Thread.sleep(1000L * attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while deploying artifacts", ex);
+        }
+    }
+
+}
@@ -0,0 +1,446 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.pipeline;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayout;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.PutTask;
+import org.eclipse.aether.spi.connector.transport.TransportListener;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.NoRepositoryLayoutException;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.transfer.TransferCancelledException;
+import org.eclipse.aether.util.ChecksumUtils;
+import tel.panfilov.maven.plugins.reposync.ListeningTransporter;
+import tel.panfilov.maven.plugins.reposync.Utils;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transfers artifacts from source repositories to target one without storing
+ * them on disk: artifact is downloaded into memory while its checksums get
+ * calculated, then artifact and its checksums are uploaded. Transport tasks
+ * upload complete bodies only, so instead of piping download into upload
+ * artifacts being transferred by all threads share memory of limited size,
+ * artifacts not fitting into memory available are transferred via local files.
+ * Transfers bypass deployer and do not update maven-metadata.xml, so only
+ * release artifacts other than poms are transferred, callers deploy poms
+ * of their versions first, so metadata references transferred files.
+ */
+public class StreamingTransfer {
+
+    private static final Map<String, String> CHECKSUMS = new LinkedHashMap<>();
+
+    static {
+        CHECKSUMS.put("SHA-1", ".sha1");
+        CHECKSUMS.put("MD5", ".md5");
+    }
+
+    private final TransporterProvider transporterProvider;
+
+    private final RepositoryLayoutProvider layoutProvider;
+
+    private final RepositorySystemSession session;
+
+    private final List<RemoteRepository> sources;
+
+    private final RemoteRepository target;
+
+    private final long maxSize;
+
+    private final int retries;
+
+    private final Log log;
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicInteger retried = new AtomicInteger();
+
+    /**
+     * guards memory available for artifacts, unlike monitors does not pin carriers of virtual threads
+     */
+    private final Lock lock = new ReentrantLock();
+
+    private long available;
+
+    private boolean virtualThreads;
+
+    private RequestTrace trace;
+
+    private Listener listener;
+
+    /**
+     * @param maxSize maximum total size of artifacts kept in memory by all threads, larger artifacts are not transferred
+     */
+    public StreamingTransfer(TransporterProvider transporterProvider, RepositoryLayoutProvider layoutProvider, RepositorySystemSession session,
+                             List<RemoteRepository> sources, RemoteRepository target, long maxSize, int retries, Log log) {
+        this.transporterProvider = transporterProvider;
+        this.layoutProvider = layoutProvider;
+        this.session = session;
+        this.sources = sources;
+        this.target = target;
+        this.maxSize = maxSize;
+        this.retries = Math.max(0, retries);
+        this.log = log;
+        this.available = maxSize;
+    }
+
+    /**
+     * @param trace trace to attach to transfers, so transfer listener of session attributes them
+     */
+    public StreamingTransfer setTrace(RequestTrace trace) {
+        this.trace = trace;
+        return this;
+    }
+
+    /**
+     * @param listener listener to notify about transferred artifacts
+     */
+    public StreamingTransfer setListener(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * @param virtualThreads whether batches are transferred in virtual threads if supported
+     */
+    public StreamingTransfer setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    public static boolean isStreamable(Artifact artifact) {
+        return !Utils.isPom(artifact) && !artifact.isSnapshot();
+    }
+
+    /**
+     * @return number of bytes transferred so far
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return number of uploads retried so far
+     */
+    public int getRetries() {
+        return retried.get();
+    }
+
+    /**
+     * Transfers batches using specified number of threads
+     *
+     * @return transferred artifacts
+     */
+    public List<Artifact> transfer(List<List<Artifact>> batches, int threads) throws MojoExecutionException, MojoFailureException {
+        return new ArtifactPipeline(threads)
+                .setVirtualThreads(virtualThreads)
+                .addStage("stream", threads, this::transfer)
+                .execute(batches);
+    }
+
+    /**
+     * @return transferred artifacts, artifacts which are not streamable, not found in
+     * source repositories, too large or failed checksum verification are not transferred
+     */
+    public List<Artifact> transfer(List<Artifact> artifacts) throws MojoExecutionException {
+        List<Artifact> transferred = new ArrayList<>();
+        List<Endpoint> endpoints = new ArrayList<>();
+        try {
+            for (RemoteRepository source : sources) {
+                endpoints.add(new Endpoint(source));
+            }
+            Endpoint destination = new Endpoint(target);
+            endpoints.add(destination);
+            for (Artifact artifact : artifacts) {
+                if (!isStreamable(artifact)) {
+                    continue;
+                }
+                Body body = download(artifact, endpoints.subList(0, endpoints.size() - 1));
+                if (body == null) {
+                    continue;
+                }
+                try {
+                    upload(artifact, destination, body);
+                } finally {
+                    release(body.reserved);
+                }
+                bytes.addAndGet(body.data.length);
+                transferred.add(artifact);
+                if (listener != null) {
+                    listener.transferred(artifact);
+                }
+            }
+        } catch (NoRepositoryLayoutException | NoTransporterException ex) {
+            log.debug("Streaming is not supported, artifacts are transferred via local files", ex);
+        } finally {
+            for (Endpoint endpoint : endpoints) {
+                endpoint.transporter.close();
+            }
+        }
+        return transferred;
+    }
+
+    protected Body download(Artifact artifact, List<Endpoint> endpoints) {
+        for (Endpoint endpoint : endpoints) {
+            URI location = endpoint.layout.getLocation(artifact, false);
+            Receiver receiver = new Receiver(artifact);
+            GetTask task = new GetTask(location).setListener(receiver);
+            try {
+                endpoint.transporter.get(task);
+            } catch (Exception ex) {
+                release(receiver.reserved);
+                if (endpoint.transporter.classify(ex) == Transporter.ERROR_NOT_FOUND) {
+                    continue;
+                }
+                log.debug("Failed to stream " + artifact + " from " + endpoint.repository.getUrl(), ex);
+                return null;
+            }
+            Map<String, String> checksums = new LinkedHashMap<>();
+            for (Map.Entry<String, MessageDigest> digest : receiver.digests.entrySet()) {
+                checksums.put(CHECKSUMS.get(digest.getKey()), ChecksumUtils.toHexString(digest.getValue().digest()));
+            }
+            if (!verify(artifact, endpoint, location, checksums)) {
+                release(receiver.reserved);
+                return null;
+            }
+            return new Body(task.getDataBytes(), checksums, receiver.reserved);
+        }
+        return null;
+    }
+
+    /**
+     * Artifacts do not wait for memory while their downloads hold admission of concurrency limiter,
+     * which may be needed by artifacts holding memory to complete
+     *
+     * @return {@code false} if memory is not available right now
+     */
+    private boolean tryReserve(long size) {
+        lock.lock();
+        try {
+            if (available < size) {
+                return false;
+            }
+            available -= size;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long size) {
+        if (size == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            available += size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compares calculated checksum with checksum published by source repository,
+     * artifacts failing verification are left for resolver to apply checksum policy
+     */
+    private boolean verify(Artifact artifact, Endpoint endpoint, URI location, Map<String, String> checksums) {
+        for (Map.Entry<String, String> checksum : checksums.entrySet()) {
+            GetTask task = new GetTask(URI.create(location + checksum.getKey()));
+            try {
+                endpoint.transporter.get(task);
+            } catch (Exception ex) {
+                continue;
+            }
+            String published = task.getDataString().trim();
+            int space = published.indexOf(' ');
+            if (space > 0) {
+                published = published.substring(0, space);
+            }
+            if (!published.equalsIgnoreCase(checksum.getValue())) {
+                log.warn("Checksum of " + artifact + " in " + endpoint.repository.getUrl() + " differs, expected "
+                        + published + " but was " + checksum.getValue());
+                return false;
+            }
+            return true;
+        }
+        return true;
+    }
+
+    protected void upload(Artifact artifact, Endpoint endpoint, Body body) throws MojoExecutionException {
+        URI location = endpoint.layout.getLocation(artifact, true);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                endpoint.transporter.put(new PutTask(location).setDataBytes(body.data));
+                for (Map.Entry<String, String> checksum : body.checksums.entrySet()) {
+                    endpoint.transporter.put(new PutTask(URI.create(location + checksum.getKey())).setDataString(checksum.getValue()));
+                }
+                return;
+            } catch (Exception ex) {
+                if (attempt >= retries) {
+                    throw new MojoExecutionException("Couldn't upload " + artifact + " to " + endpoint.repository.getUrl(), ex);
+                }
+                log.warn("Failed to upload " + artifact + ", retrying: " + ex.getMessage());
+                retried.incrementAndGet();
+                pause(attempt + 1);
+            }
+        }
+    }
+
+    private static Map<String, MessageDigest> newDigests() {
+        Map<String, MessageDigest> digests = new LinkedHashMap<>();
+        for (String algorithm : CHECKSUMS.keySet()) {
+            try {
+                digests.put(algorithm, MessageDigest.getInstance(algorithm));
+            } catch (NoSuchAlgorithmException ex) {
+                // checksum is not uploaded
+            }
+        }
+        return digests;
+    }
+
+    private void pause(int attempt) throws MojoExecutionException {
+        try {
+            Thread.sleep(1000L * attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while uploading artifacts", ex);
+        }
+    }
+
+    /**
+     * Receives artifacts right after they get transferred
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        void transferred(Artifact artifact) throws MojoExecutionException;
+
+    }
+
+    /**
+     * Calculates checksums of artifact being downloaded and reserves memory for its body,
+     * artifacts are cancelled if memory is not available, so they are transferred via local files
+     */
+    private class Receiver extends TransportListener {
+
+        final Artifact artifact;
+
+        final Map<String, MessageDigest> digests = newDigests();
+
+        long received;
+
+        long reserved;
+
+        Receiver(Artifact artifact) {
+            this.artifact = artifact;
+        }
+
+        @Override
+        public void transportStarted(long dataOffset, long dataLength) throws TransferCancelledException {
+            if (dataLength > maxSize) {
+                throw new TransferCancelledException(artifact + " is too large to be kept in memory");
+            }
+            if (dataLength > reserved) {
+                if (!tryReserve(dataLength - reserved)) {
+                    throw new TransferCancelledException(artifact + " does not fit into memory");
+                }
+                reserved = dataLength;
+            }
+        }
+
+        @Override
+        public void transportProgressed(ByteBuffer data) throws TransferCancelledException {
+            received += data.remaining();
+            if (received > reserved) {
+                if (received > maxSize || !tryReserve(received - reserved)) {
+                    throw new TransferCancelledException(artifact + " does not fit into memory");
+                }
+                reserved = received;
+            }
+            for (MessageDigest digest : digests.values()) {
+                digest.update(data.duplicate());
+            }
+        }
+
+    }
+
+    protected class Endpoint {
+
+        final RemoteRepository repository;
+
+        final RepositoryLayout layout;
+
+        final Transporter transporter;
+
+        Endpoint(RemoteRepository repository) throws NoRepositoryLayoutException, NoTransporterException {
+            this.repository = repository;
+            this.layout = layoutProvider.newRepositoryLayout(session, repository);
+            // transfers are admitted by concurrency limiter and accounted in metrics
+            this.transporter = new ListeningTransporter(transporterProvider.newTransporter(session, repository), session, repository, trace);
+        }
+
+    }
+
+    protected static class Body {
+
+        final byte[] data;
+
+        /**
+         * checksums by extensions of checksum files
+         */
+        final Map<String, String> checksums;
+
+        /**
+         * memory reserved for the body
+         */
+        final long reserved;
+
+        Body(byte[] data, Map<String, String> checksums, long reserved) {
+            this.data = data;
+            this.checksums = Collections.unmodifiableMap(checksums);
+            this.reserved = reserved;
+        }
+
+    }
+
+}
@@ -0,0 +1,245 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.impl.OfflineController;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tel.panfilov.maven.plugins.reposync.component.DefaultRepositoryArtifactChecker;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AbstractSyncMojoTest {
+
+    private static final int ARTIFACTS = 10;
+
+    private static final int SIZE = 400 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path source;
+
+    private Path target;
+
+    private DefaultServiceLocator locator;
+
+    private DefaultRepositorySystemSession session;
+
+    private TestSyncMojo mojo;
+
+    private List<Artifact> artifacts;
+
+    @Before
+    public void setUp() throws Exception {
+        source = folder.newFolder("source").toPath();
+        target = folder.newFolder("target").toPath();
+        Random random = new Random(42);
+        artifacts = new ArrayList<>();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            String artifactId = "lib" + i;
+            Path file = source.resolve("org/example/" + artifactId + "/1.0/" + artifactId + "-1.0.jar");
+            Files.createDirectories(file.getParent());
+            byte[] content = new byte[SIZE];
+            random.nextBytes(content);
+            Files.write(file, content);
+            artifacts.add(new DefaultArtifact("org.example:" + artifactId + ":jar:1.0"));
+        }
+
+        locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+        RepositorySystem system = locator.getService(RepositorySystem.class);
+
+        session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, new LocalRepository(folder.newFolder("local"))));
+
+        mojo = newMojo(new RemoteRepository.Builder("target", "default", target.toUri().toString()).build());
+        mojo.spool = true;
+        mojo.spoolDirectory = folder.newFolder("spool");
+        mojo.spoolMaxSize = 1;
+        mojo.deployBatchSize = 1;
+        mojo.deployThreads = 2;
+    }
+
+    /**
+     * Spool holds a fraction of artifacts, none of them gets evicted before deploy
+     */
+    @Test
+    public void downloadsSpooledArtifactsOnce() throws Exception {
+        mojo.deployMissingArtifacts(artifacts);
+
+        assertEquals(artifacts.size(), mojo.downloads.size());
+        assertEquals(artifacts.size(), mojo.downloads.stream().map(Artifact::toString).distinct().count());
+        assertEquals(0, mojo.downloadSpool.getEvictions());
+        for (Artifact artifact : artifacts) {
+            String artifactId = artifact.getArtifactId();
+            assertTrue(artifactId, Files.isRegularFile(target.resolve("org/example/" + artifactId + "/1.0/" + artifactId + "-1.0.jar")));
+        }
+    }
+
+    @Test
+    public void streamsFilesAfterPomsAreDeployed() throws Exception {
+        streamsFilesAfterPomsAreDeployed(false);
+    }
+
+    @Test
+    public void streamsFilesAfterPomsAreDeployedInPipeline() throws Exception {
+        streamsFilesAfterPomsAreDeployed(true);
+    }
+
+    private void streamsFilesAfterPomsAreDeployed(boolean pipeline) throws Exception {
+        List<Artifact> existing = new ArrayList<>();
+        for (Artifact artifact : artifacts.subList(0, 3)) {
+            String artifactId = artifact.getArtifactId();
+            Path pom = source.resolve("org/example/" + artifactId + "/1.0/" + artifactId + "-1.0.pom");
+            Files.write(pom, ("<project><modelVersion>4.0.0</modelVersion><groupId>org.example</groupId><artifactId>" + artifactId
+                    + "</artifactId><version>1.0</version></project>").getBytes(StandardCharsets.UTF_8));
+            existing.add(artifact);
+            existing.add(new DefaultArtifact("org.example:" + artifactId + ":pom:1.0"));
+        }
+        try (RepositoryServer server = new RepositoryServer(target)) {
+            TestSyncMojo streaming = newMojo(new RemoteRepository.Builder("target", "default", server.getUrl()).build());
+            streaming.existing = existing;
+            streaming.stream = true;
+            streaming.pipeline = pipeline;
+            streaming.streamMaxSize = 1;
+            streaming.synchronise();
+
+            List<String> requests = server.getRequests();
+            for (Artifact artifact : artifacts.subList(0, 3)) {
+                String path = "/org/example/" + artifact.getArtifactId() + "/1.0/" + artifact.getArtifactId() + "-1.0";
+                int pom = requests.indexOf("PUT " + path + ".pom");
+                int jar = requests.indexOf("PUT " + path + ".jar");
+                assertTrue(requests.toString(), pom >= 0 && jar > pom);
+            }
+            // jars are streamed rather than downloaded
+            for (Artifact artifact : streaming.downloads) {
+                assertEquals("pom", artifact.getExtension());
+            }
+        }
+    }
+
+    private TestSyncMojo newMojo(RemoteRepository target) throws Exception {
+        TestSyncMojo mojo = new TestSyncMojo(session,
+                new RemoteRepository.Builder("source", "default", source.toUri().toString()).build(), target);
+        DefaultRepositoryArtifactChecker checker = new DefaultRepositoryArtifactChecker();
+        inject(checker, "versionResolver", locator.getService(VersionResolver.class));
+        inject(checker, "repositoryConnectorProvider", locator.getService(RepositoryConnectorProvider.class));
+        inject(checker, "remoteRepositoryManager", locator.getService(RemoteRepositoryManager.class));
+        inject(checker, "offlineController", locator.getService(OfflineController.class));
+        mojo.repositoryArtifactChecker = checker;
+        mojo.repoSystem = locator.getService(RepositorySystem.class);
+        mojo.artifactResolver = locator.getService(ArtifactResolver.class);
+        mojo.transporterProvider = locator.getService(TransporterProvider.class);
+        mojo.repositoryLayoutProvider = locator.getService(RepositoryLayoutProvider.class);
+        return mojo;
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    static class TestSyncMojo extends AbstractSyncMojo {
+
+        private final RepositorySystemSession repositorySession;
+
+        private final List<RemoteRepository> sources;
+
+        private final RemoteRepository target;
+
+        private final List<Artifact> downloads = Collections.synchronizedList(new ArrayList<>());
+
+        private List<Artifact> existing = Collections.emptyList();
+
+        TestSyncMojo(RepositorySystemSession repositorySession, RemoteRepository source, RemoteRepository target) {
+            this.repositorySession = repositorySession;
+            this.sources = Collections.singletonList(source);
+            this.target = target;
+        }
+
+        @Override
+        protected List<Artifact> getExistingArtifacts() {
+            return existing;
+        }
+
+        @Override
+        protected List<ArtifactResult> downloadMissingArtifacts(List<Artifact> artifacts, boolean deploying) throws MojoFailureException, MojoExecutionException {
+            downloads.addAll(artifacts);
+            return super.downloadMissingArtifacts(artifacts, deploying);
+        }
+
+        @Override
+        protected RepositorySystemSession getRepositorySession() {
+            return repositorySession;
+        }
+
+        @Override
+        protected List<RemoteRepository> getSourceRepositories() {
+            return sources;
+        }
+
+        @Override
+        protected RemoteRepository getTargetRepository() {
+            return target;
+        }
+
+    }
+
+}
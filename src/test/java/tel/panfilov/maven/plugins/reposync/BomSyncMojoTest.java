@@ -0,0 +1,190 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tel.panfilov.maven.plugins.reposync.component.DefaultDependencyCollector;
+import tel.panfilov.maven.plugins.reposync.component.DefaultScopeMediator;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class BomSyncMojoTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path source;
+
+    private TestBomSyncMojo mojo;
+
+    @Before
+    public void setUp() throws Exception {
+        source = folder.newFolder("source").toPath();
+        pom("bom", "<dependencyManagement><dependencies>"
+                + dependency("first", "1.0", null)
+                + dependency("second", "1.0", null)
+                + dependency("shared", "2.0", null)
+                + dependency("third", "1.0", null)
+                + dependency("fourth", "1.0", null)
+                + dependency("tests", "1.0", "test")
+                + "</dependencies></dependencyManagement>");
+        pom("first", "<dependencies>" + dependency("shared", "1.0", null) + dependency("lib", "1.0", null) + "</dependencies>");
+        pom("second", "<dependencies>" + dependency("lib", "1.1", null) + "</dependencies>");
+        pom("shared", "1.0", "<dependencies>" + dependency("deep", "1.0", null) + "</dependencies>");
+        pom("shared", "2.0", "<dependencies>" + dependency("deep", "2.0", null) + "</dependencies>");
+        pom("lib", "1.0", "");
+        pom("lib", "1.1", "");
+        pom("deep", "1.0", "");
+        pom("deep", "2.0", "");
+        pom("tests", "1.0", "");
+        pom("third", "<dependencies>" + dependency("nested", "1.0", null) + dependency("wrapper", "1.0", null) + "</dependencies>");
+        pom("fourth", "<dependencies>" + dependency("wrapper", "1.0", null) + "</dependencies>");
+        pom("wrapper", "<dependencies>" + dependency("nested", "2.0", null) + "</dependencies>");
+        pom("nested", "1.0", "");
+        pom("nested", "2.0", "");
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        RepositorySystem system = locator.getService(RepositorySystem.class);
+
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, new LocalRepository(folder.newFolder("local"))));
+
+        DefaultScopeMediator scopeMediator = new DefaultScopeMediator();
+        DefaultDependencyCollector collector = new DefaultDependencyCollector();
+        inject(collector, "repoSystem", system);
+        inject(collector, "scopeMediator", scopeMediator);
+
+        mojo = new TestBomSyncMojo(session, new RemoteRepository.Builder("source", "default", source.toUri().toString()).build());
+        mojo.dependencyCollector = collector;
+        mojo.scopeMediator = scopeMediator;
+        mojo.artifactDescriptorReader = locator.getService(ArtifactDescriptorReader.class);
+        mojo.setScope(AbstractSyncMojo.DEFAULT_SCOPE);
+    }
+
+    @Test
+    public void collectsGraphPerEntry() throws Exception {
+        assertEquals(ids("first:1.0", "second:1.0", "shared:1.0", "shared:2.0", "deep:1.0", "deep:2.0", "lib:1.0", "lib:1.1",
+                        "third:1.0", "fourth:1.0", "wrapper:1.0", "nested:1.0", "nested:2.0"),
+                collect(false));
+    }
+
+    /**
+     * Management of BOM, selection and conflict resolution apply to graph of every entry as if it was collected separately
+     */
+    @Test
+    public void collectsSingleGraph() throws Exception {
+        assertEquals(collect(false), collect(true));
+    }
+
+    private Set<String> collect(boolean singleGraph) throws Exception {
+        mojo.singleGraph = singleGraph;
+        Artifact bom = new DefaultArtifact("org.example:bom:pom:1.0");
+        return mojo.collectDependencies(bom, mojo.getManagedDependencies(bom)).stream()
+                .map(Artifact::toString)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Set<String> ids(String... ids) {
+        return Arrays.stream(ids)
+                .map(id -> "org.example:" + id.replace(":", ":pom:"))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void pom(String artifactId, String content) throws IOException {
+        pom(artifactId, "1.0", content);
+    }
+
+    private void pom(String artifactId, String version, String content) throws IOException {
+        Path file = source.resolve("org/example/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom");
+        Files.createDirectories(file.getParent());
+        String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>org.example</groupId>"
+                + "<artifactId>" + artifactId + "</artifactId><version>" + version + "</version>"
+                + "<packaging>pom</packaging>" + content + "</project>";
+        Files.write(file, pom.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String dependency(String artifactId, String version, String scope) {
+        return "<dependency><groupId>org.example</groupId><artifactId>" + artifactId + "</artifactId>"
+                + "<version>" + version + "</version><type>pom</type>"
+                + (scope == null ? "" : "<scope>" + scope + "</scope>") + "</dependency>";
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    static class TestBomSyncMojo extends BomSyncMojo {
+
+        private final RepositorySystemSession repositorySession;
+
+        private final List<RemoteRepository> repositories;
+
+        TestBomSyncMojo(RepositorySystemSession repositorySession, RemoteRepository repository) {
+            this.repositorySession = repositorySession;
+            this.repositories = Collections.singletonList(repository);
+        }
+
+        @Override
+        protected RepositorySystemSession getRepositorySession() {
+            return repositorySession;
+        }
+
+        @Override
+        protected List<RemoteRepository> getSourceRepositories() {
+            return repositories;
+        }
+
+    }
+
+}
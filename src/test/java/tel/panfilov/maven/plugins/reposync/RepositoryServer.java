@@ -0,0 +1,185 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP stand-in of repository serving files of directory: supports GET, HEAD and PUT,
+ * lists directories like repository managers do and may delay every response
+ */
+public class RepositoryServer implements AutoCloseable {
+
+    private final Path root;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile long latency;
+
+    private volatile boolean listings = true;
+
+    public RepositoryServer(Path root) throws IOException {
+        this.root = root;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * @param latency delay of every response in milliseconds
+     */
+    public RepositoryServer setLatency(long latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * @param listings whether directories are listed, otherwise they are not found
+     */
+    public RepositoryServer setListings(boolean listings) {
+        this.listings = listings;
+        return this;
+    }
+
+    /**
+     * @return requests made so far as method and path
+     */
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return maximum number of requests served concurrently
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public void reset() {
+        requests.clear();
+        maxInFlight.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        requests.add(method + " " + path);
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        int status;
+        byte[] body = null;
+        try {
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            Path file = root.resolve(path.substring(1)).normalize();
+            if (!file.startsWith(root)) {
+                status = 403;
+            } else if ("PUT".equals(method)) {
+                Files.createDirectories(file.getParent());
+                try (InputStream is = exchange.getRequestBody()) {
+                    Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                status = 201;
+            } else if (Files.isRegularFile(file)) {
+                status = 200;
+                body = Files.readAllBytes(file);
+            } else if (Files.isDirectory(file) && listings) {
+                status = 200;
+                body = list(file).getBytes(StandardCharsets.UTF_8);
+            } else {
+                status = 404;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            status = 503;
+        } finally {
+            // client may send next request as soon as it gets response
+            inFlight.decrementAndGet();
+        }
+        try {
+            send(exchange, status, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String list(Path directory) throws IOException {
+        StringBuilder html = new StringBuilder("<html><body><a href=\"../\">../</a>\n");
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName() + (Files.isDirectory(entry) ? "/" : "");
+                html.append("<a href=\"").append(name).append("\">").append(name).append("</a>\n");
+            }
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, head ? -1 : body.length);
+        if (!head) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+}
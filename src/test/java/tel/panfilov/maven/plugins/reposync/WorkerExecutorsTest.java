@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Test;
+import tel.panfilov.maven.plugins.reposync.pipeline.ArtifactPipeline;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class WorkerExecutorsTest {
+
+    @Test
+    public void detectsVirtualThreads() {
+        String version = System.getProperty("java.specification.version");
+        int feature = version.startsWith("1.") ? 1 : Integer.parseInt(version);
+        assertEquals(feature >= 21, WorkerExecutors.isVirtualThreadsSupported());
+    }
+
+    @Test(timeout = 10000)
+    public void boundsPlatformThreads() throws Exception {
+        assertEquals(2, maxConcurrency(false));
+        assertFalse(isVirtual(false));
+    }
+
+    @Test(timeout = 10000)
+    public void boundsVirtualThreads() throws Exception {
+        assertEquals(2, maxConcurrency(true));
+        assertEquals(WorkerExecutors.isVirtualThreadsSupported(), isVirtual(true));
+    }
+
+    @Test(timeout = 10000)
+    public void startsVirtualThreadPerTask() throws Exception {
+        ExecutorService executor = WorkerExecutors.newVirtualThreadPerTaskExecutor("test");
+        assertEquals(WorkerExecutors.isVirtualThreadsSupported(), executor != null);
+        assumeTrue(executor != null);
+        CountDownLatch started = new CountDownLatch(100);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    return started.await(5, TimeUnit.SECONDS);
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void runsPipelineInVirtualThreads() throws Exception {
+        assumeTrue(WorkerExecutors.isVirtualThreadsSupported());
+        List<List<Artifact>> batches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<Artifact> batch = new ArrayList<>();
+            batch.add(new DefaultArtifact("org.example:lib:jar:1." + i));
+            batches.add(batch);
+        }
+        List<Artifact> processed = new ArtifactPipeline(2)
+                .setVirtualThreads(true)
+                .addStage("first", 2, artifacts -> artifacts)
+                .execute(batches);
+        assertEquals(10, processed.size());
+    }
+
+    private static int maxConcurrency(boolean virtual) throws Exception {
+        ExecutorService executor = WorkerExecutors.newExecutor("test", 2, virtual);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    int current = running.incrementAndGet();
+                    max.accumulateAndGet(current, Math::max);
+                    started.countDown();
+                    try {
+                        // lets other tasks start if executor is not bounded
+                        assertTrue(started.await(5, TimeUnit.SECONDS));
+                        Thread.sleep(20);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return max.get();
+    }
+
+    /**
+     * @return whether tasks run in virtual threads
+     */
+    private static boolean isVirtual(boolean virtual) throws Exception {
+        ExecutorService executor = WorkerExecutors.newExecutor("test", 1, virtual);
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get();
+            Method isVirtual = Thread.class.getMethod("isVirtual");
+            return (Boolean) isVirtual.invoke(thread);
+        } catch (NoSuchMethodException ex) {
+            // JVM has no virtual threads
+            return false;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
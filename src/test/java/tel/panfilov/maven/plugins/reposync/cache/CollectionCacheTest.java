@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.cache;
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CollectionCacheTest {
+
+    @Test
+    public void passesOtherEntriesToSessionCache() {
+        RepositoryCache session = new DefaultRepositoryCache();
+        CollectionCache cache = new CollectionCache(session, 1);
+        Object first = new Object();
+        Object second = new Object();
+        cache.put(null, "first", first);
+        cache.put(null, "second", second);
+        assertSame(first, session.get(null, "first"));
+        assertSame(first, cache.get(null, "first"));
+        assertSame(second, cache.get(null, "second"));
+        assertFalse(cache.isUsed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void boundsDescriptors() {
+        CollectionCache cache = new CollectionCache(null, 2);
+        for (String key : CollectionCache.DESCRIPTORS) {
+            // pool created by collector is ignored, all collections share the bounded one
+            cache.put(null, key, new HashMap<>());
+        }
+        Map<Object, Object> descriptors = (Map<Object, Object>) cache.get(null, CollectionCache.DESCRIPTORS[0]);
+        assertSame(descriptors, cache.get(null, CollectionCache.DESCRIPTORS[1]));
+        descriptors.put("a", "A");
+        descriptors.put("b", "B");
+        assertEquals("A", descriptors.get("a"));
+        descriptors.put("c", "C");
+        assertNull(descriptors.get("b"));
+        assertEquals(2, descriptors.size());
+        assertTrue(cache.isUsed());
+        assertEquals("descriptors: 1 hits, 1 misses", cache.getStatistics());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void implementsInternPool() {
+        Map<Object, Object> map = new HashMap<>();
+        InternPool<String, String> pool = (InternPool<String, String>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{InternPool.class}, new CollectionCache.InternPoolHandler(map));
+        assertNull(pool.get("key"));
+        assertEquals("first", pool.intern("key", "first"));
+        assertEquals("first", pool.intern("key", "second"));
+        assertEquals("first", pool.get("key"));
+        assertEquals(1, map.size());
+    }
+
+    interface InternPool<K, V> {
+
+        V get(K key);
+
+        V intern(K key, V value);
+
+    }
+
+}
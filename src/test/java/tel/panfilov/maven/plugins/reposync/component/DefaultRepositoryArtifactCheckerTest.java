@@ -0,0 +1,206 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.impl.OfflineController;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tel.panfilov.maven.plugins.reposync.RepositoryServer;
+import tel.panfilov.maven.plugins.reposync.WorkerExecutors;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class DefaultRepositoryArtifactCheckerTest {
+
+    private static final int ARTIFACTS = 40;
+
+    private static final int REPOSITORY_THREADS = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path target;
+
+    private DefaultRepositorySystemSession session;
+
+    private DefaultRepositoryArtifactChecker checker;
+
+    @Before
+    public void setUp() throws Exception {
+        target = folder.newFolder("target").toPath();
+        for (int i = 0; i < ARTIFACTS; i += 2) {
+            Path file = target.resolve("org/example/lib" + i + "/1.0/lib" + i + "-1.0.jar");
+            Files.createDirectories(file.getParent());
+            Files.write(file, new byte[]{1});
+        }
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        RepositorySystem system = locator.getService(RepositorySystem.class);
+
+        checker = new DefaultRepositoryArtifactChecker();
+        inject(checker, "versionResolver", locator.getService(VersionResolver.class));
+        inject(checker, "repositoryConnectorProvider", locator.getService(RepositoryConnectorProvider.class));
+        inject(checker, "remoteRepositoryManager", locator.getService(RemoteRepositoryManager.class));
+        inject(checker, "offlineController", locator.getService(OfflineController.class));
+
+        session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, new LocalRepository(folder.newFolder("local"))));
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_THREADS, 16);
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_REPOSITORY_THREADS, REPOSITORY_THREADS);
+    }
+
+    @Test(timeout = 30000)
+    public void limitsRequestsPerRepository() throws Exception {
+        assertEquals(REPOSITORY_THREADS, check());
+    }
+
+    @Test(timeout = 30000)
+    public void limitsRequestsPerRepositoryInVirtualThreads() throws Exception {
+        assumeTrue(WorkerExecutors.isVirtualThreadsSupported());
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_VIRTUAL_THREADS, true);
+        assertEquals(REPOSITORY_THREADS, check());
+    }
+
+    @Test(timeout = 30000)
+    public void limitsRequestsPerRepositoryInCallingThread() throws Exception {
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_THREADS, 1);
+        assertEquals(REPOSITORY_THREADS, check());
+    }
+
+    /**
+     * Neither checked artifact nor its copy in local repository has a file to compare with
+     */
+    @Test
+    public void comparesChecksumsPublishedBySource() throws Exception {
+        Path source = folder.newFolder("source").toPath();
+        publish(source, "org.example:same:1.0", "content");
+        publish(target, "org.example:same:1.0", "content");
+        publish(source, "org.example:changed:1.0", "new content");
+        publish(target, "org.example:changed:1.0", "old content");
+        RemoteRepository repository = new RemoteRepository.Builder("source", "default", source.toUri().toString()).build();
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM, "sha1");
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM_REPOSITORIES, Collections.singletonList(repository));
+        for (int threads : new int[]{1, 16}) {
+            session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_THREADS, threads);
+            List<ArtifactResult> results = checkChecksums("org.example:same:jar:1.0", "org.example:changed:jar:1.0");
+            assertNotNull(results.get(0).getArtifact());
+            assertNull(results.get(1).getArtifact());
+            assertTrue(results.get(1).getExceptions().get(0) instanceof ArtifactChecksumMismatchException);
+        }
+    }
+
+    @Test
+    public void reportsUnverifiableChecksums() throws Exception {
+        publish(target, "org.example:same:1.0", "content");
+        session.setConfigProperty(DefaultRepositoryArtifactChecker.CONFIG_PROP_CHECKSUM, "sha1");
+        List<ArtifactResult> results = checkChecksums("org.example:same:jar:1.0");
+        assertNull(results.get(0).getArtifact());
+        assertTrue(results.get(0).getExceptions().get(0) instanceof ArtifactChecksumUnverifiableException);
+    }
+
+    private List<ArtifactResult> checkChecksums(String... coords) {
+        RemoteRepository repository = new RemoteRepository.Builder("target", "default", target.toUri().toString()).build();
+        List<ArtifactRequest> requests = new ArrayList<>();
+        for (String coord : coords) {
+            requests.add(new ArtifactRequest(new DefaultArtifact(coord), Collections.singletonList(repository), null));
+        }
+        return checker.checkArtifacts(session, false, requests);
+    }
+
+    private static void publish(Path repository, String coords, String content) throws Exception {
+        String[] parts = coords.split(":");
+        Path file = repository.resolve(parts[0].replace('.', '/') + "/" + parts[1] + "/" + parts[2] + "/" + parts[1] + "-" + parts[2] + ".jar");
+        Files.createDirectories(file.getParent());
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+        StringBuilder sha1 = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes)) {
+            sha1.append(String.format("%02x", b));
+        }
+        Files.write(file.resolveSibling(file.getFileName() + ".sha1"), sha1.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return maximum number of requests in flight
+     */
+    private int check() throws Exception {
+        try (RepositoryServer server = new RepositoryServer(target).setLatency(50)) {
+            RemoteRepository repository = new RemoteRepository.Builder("target", "default", server.getUrl()).build();
+            List<ArtifactRequest> requests = new ArrayList<>();
+            for (int i = 0; i < ARTIFACTS; i++) {
+                DefaultArtifact artifact = new DefaultArtifact("org.example:lib" + i + ":jar:1.0");
+                requests.add(new ArtifactRequest(artifact, Collections.singletonList(repository), null));
+            }
+            List<ArtifactResult> results = checker.checkArtifacts(session, false, requests);
+            for (int i = 0; i < ARTIFACTS; i++) {
+                if (i % 2 == 0) {
+                    assertNotNull(results.get(i).getArtifact());
+                } else {
+                    assertNull(results.get(i).getArtifact());
+                }
+            }
+            assertEquals(ARTIFACTS, server.getRequests().size());
+            return server.getMaxInFlight();
+        }
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tel.panfilov.maven.plugins.reposync.cache.ScanSnapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LocalRepositoryScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path repository;
+
+    private Path snapshots;
+
+    @Before
+    public void setUp() throws IOException {
+        repository = folder.newFolder("repository").toPath();
+        snapshots = folder.newFolder("snapshots").toPath();
+        write("org/example/first/1.0/first-1.0.jar", "first");
+        write("org/example/first/1.0/first-1.0.pom", "<project/>");
+        write("org/example/second/2.0/second-2.0.jar", "second");
+    }
+
+    @Test
+    public void findsArtifacts() throws IOException {
+        assertEquals(ids("org.example:first:jar:1.0", "org.example:first:pom:1.0", "org.example:second:jar:2.0"),
+                ids(new LocalRepositoryScanner(repository, true, new SystemStreamLog(), 4).scan()));
+        assertEquals(ids("org.example:first:jar:1.0", "org.example:first:pom:1.0", "org.example:second:jar:2.0"),
+                ids(new LocalRepositoryScanner(repository, true, new SystemStreamLog(), 1).scan()));
+    }
+
+    @Test
+    public void parallelScanMatchesSerialScan() throws IOException {
+        for (int group = 0; group < 5; group++) {
+            for (int artifact = 0; artifact < 10; artifact++) {
+                String dir = "org/example/group" + group + "/lib" + artifact;
+                write(dir + "/maven-metadata.xml", "<metadata/>");
+                for (int version = 0; version < 3; version++) {
+                    String prefix = dir + "/1." + version + "/lib" + artifact + "-1." + version;
+                    write(prefix + ".jar", "jar");
+                    write(prefix + ".jar.sha1", "sha1");
+                    write(prefix + ".pom", "<project/>");
+                    write(prefix + "-sources.jar", "sources");
+                }
+            }
+        }
+        Set<String> serial = ids(new LocalRepositoryScanner(repository, true, new SystemStreamLog(), 1).scan());
+        assertEquals(3 + 5 * 10 * 3 * 3, serial.size());
+        for (int parallelism : new int[]{2, 4, 8}) {
+            assertEquals(serial, ids(new LocalRepositoryScanner(repository, true, new SystemStreamLog(), parallelism).scan()));
+        }
+    }
+
+    @Test
+    public void rethrowsBadArtifactFailure() throws IOException {
+        write("org/example/third/3.0/third-3.0-${classifier}.jar", "third");
+        try {
+            new LocalRepositoryScanner(repository, true, new SystemStreamLog(), 4).scan();
+            fail("failure expected");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("illegal characters"));
+        }
+        assertEquals(ids("org.example:first:jar:1.0", "org.example:first:pom:1.0", "org.example:second:jar:2.0"),
+                ids(new LocalRepositoryScanner(repository, false, new SystemStreamLog(), 4).scan()));
+    }
+
+    @Test
+    public void skipsUnchangedDirectories() throws IOException {
+        assertEquals(3, scan().size());
+        assertTrue(scan().isEmpty());
+        write("org/example/second/2.1/second-2.1.jar", "second");
+        assertEquals(ids("org.example:second:jar:2.1"), ids(scan()));
+        assertTrue(scan().isEmpty());
+    }
+
+    @Test
+    public void findsVersionsAddedWithinTimestampGranularity() throws IOException {
+        Path directory = repository.resolve("org/example/second");
+        FileTime modified = Files.getLastModifiedTime(directory);
+        assertEquals(3, scan().size());
+        write("org/example/second/2.1/second-2.1.jar", "second");
+        Files.setLastModifiedTime(directory, modified);
+        assertEquals(ids("org.example:second:jar:2.1"), ids(scan()));
+    }
+
+    @Test
+    public void findsFilesOverwrittenInPlace() throws IOException {
+        assertEquals(3, scan().size());
+        Path directory = repository.resolve("org/example/first/1.0");
+        FileTime modified = Files.getLastModifiedTime(directory);
+        write("org/example/first/1.0/first-1.0.jar", "first, rebuilt");
+        Files.setLastModifiedTime(directory, modified);
+        assertEquals(ids("org.example:first:jar:1.0", "org.example:first:pom:1.0"), ids(scan()));
+    }
+
+    @Test
+    public void commitsPendingSnapshot() throws IOException {
+        ScanSnapshot current = new ScanSnapshot(snapshots, "key");
+        new LocalRepositoryScanner(repository, true, new SystemStreamLog(), 2)
+                .scan(new ScanSnapshot(snapshots, "key").load(), current);
+        current.savePending();
+        assertEquals(0, new ScanSnapshot(snapshots, "key").load().size());
+        assertTrue(new ScanSnapshot(snapshots, "key").commitPending());
+        assertEquals(current.size(), new ScanSnapshot(snapshots, "key").load().size());
+    }
+
+    private Set<Artifact> scan() throws IOException {
+        ScanSnapshot current = new ScanSnapshot(snapshots, "key");
+        Set<Artifact> artifacts = new LocalRepositoryScanner(repository, true, new SystemStreamLog(), 2)
+                .scan(new ScanSnapshot(snapshots, "key").load(), current);
+        current.save();
+        return artifacts;
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = repository.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Set<String> ids(String... ids) {
+        return new TreeSet<>(Arrays.asList(ids));
+    }
+
+    private static Set<String> ids(Set<Artifact> artifacts) {
+        return artifacts.stream().map(Artifact::toString).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+}
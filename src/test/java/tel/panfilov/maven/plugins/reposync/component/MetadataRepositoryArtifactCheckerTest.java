@@ -0,0 +1,276 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.component;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.impl.OfflineController;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tel.panfilov.maven.plugins.reposync.RepositoryServer;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetadataRepositoryArtifactCheckerTest {
+
+    private static final String[] FILES = {".pom", ".jar", "-sources.jar", "-tests.jar", "-javadoc.jar"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path target;
+
+    private DefaultRepositorySystemSession session;
+
+    private MetadataRepositoryArtifactChecker checker;
+
+    private DefaultRepositoryArtifactChecker fileChecker;
+
+    private final List<String> checked = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        target = folder.newFolder("target").toPath();
+        write("org/example/lib/maven-metadata.xml", "<metadata><groupId>org.example</groupId><artifactId>lib</artifactId>"
+                + "<versioning><versions><version>1.0</version></versions></versioning></metadata>");
+        write("org/example/lib/1.0/lib-1.0.pom", "<project/>");
+        write("org/example/lib/1.0/lib-1.0.jar", "lib");
+        // deployed without updating metadata
+        write("org/example/lib/1.1/lib-1.1.pom", "<project/>");
+        write("org/example/lib/1.1/lib-1.1.jar", "lib");
+        // no metadata at all
+        write("org/example/other/1.0/other-1.0.pom", "<project/>");
+        write("org/example/other/1.0/other-1.0.jar", "other");
+        StringBuilder versions = new StringBuilder();
+        for (int version = 0; version < 3; version++) {
+            versions.append("<version>2.").append(version).append("</version>");
+            for (String suffix : FILES) {
+                if (version == 0 && suffix.endsWith("javadoc.jar")) {
+                    continue;
+                }
+                write("org/example/many/2." + version + "/many-2." + version + suffix, "many");
+            }
+        }
+        write("org/example/many/maven-metadata.xml", "<metadata><groupId>org.example</groupId><artifactId>many</artifactId>"
+                + "<versioning><versions>" + versions + "</versions></versioning></metadata>");
+
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+
+        DefaultRepositoryArtifactChecker fileChecker = new DefaultRepositoryArtifactChecker();
+        inject(fileChecker, "versionResolver", locator.getService(VersionResolver.class));
+        inject(fileChecker, "repositoryConnectorProvider", locator.getService(RepositoryConnectorProvider.class));
+        inject(fileChecker, "remoteRepositoryManager", locator.getService(RemoteRepositoryManager.class));
+        inject(fileChecker, "offlineController", locator.getService(OfflineController.class));
+
+        RepositorySystem system = locator.getService(RepositorySystem.class);
+        checker = new MetadataRepositoryArtifactChecker();
+        inject(checker, "repoSystem", system);
+        inject(checker, "delegate", new RecordingChecker(fileChecker));
+        inject(checker, "transporterProvider", locator.getService(TransporterProvider.class));
+        inject(checker, "layoutProvider", locator.getService(RepositoryLayoutProvider.class));
+        this.fileChecker = fileChecker;
+
+        session = MavenRepositorySystemUtils.newSession();
+        LocalRepository local = new LocalRepository(folder.newFolder("local"));
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, local));
+    }
+
+    @Test
+    public void findsArtifactsListedInMetadata() throws Exception {
+        List<ArtifactResult> results = check("org.example:lib:jar:1.0", "org.example:lib:pom:1.0", "org.example:lib:jar:sources:1.0");
+        assertNotNull(results.get(0).getArtifact());
+        assertNotNull(results.get(1).getArtifact());
+        assertNull(results.get(2).getArtifact());
+    }
+
+    @Test
+    public void findsArtifactsMissingInMetadata() throws Exception {
+        List<ArtifactResult> results = check("org.example:lib:jar:1.1", "org.example:lib:pom:1.1", "org.example:other:jar:1.0");
+        assertNotNull(results.get(0).getArtifact());
+        assertNotNull(results.get(1).getArtifact());
+        assertNotNull(results.get(2).getArtifact());
+    }
+
+    @Test
+    public void checksPomOfMissingVersionOnly() throws Exception {
+        List<ArtifactResult> results = check("org.example:lib:jar:1.2", "org.example:lib:jar:sources:1.2",
+                "org.example:absent:jar:1.0", "org.example:absent:pom:1.0");
+        for (ArtifactResult result : results) {
+            assertNull(result.getArtifact());
+            assertFalse(result.getExceptions().isEmpty());
+        }
+        assertEquals(Arrays.asList("org.example:lib:pom:1.2", "org.example:absent:pom:1.0"), checked);
+    }
+
+    @Test
+    public void listsVersionDirectoriesInsteadOfCheckingFiles() throws Exception {
+        try (RepositoryServer server = new RepositoryServer(target)) {
+            RemoteRepository repository = new RemoteRepository.Builder("target", "default", server.getUrl()).build();
+            List<ArtifactRequest> requests = manyRequests(repository);
+            requests.add(new ArtifactRequest(new DefaultArtifact("org.example:many:jar:javadoc:2.0"), Collections.singletonList(repository), null));
+
+            List<ArtifactResult> results = checker.checkArtifacts(session, false, requests);
+            for (ArtifactResult result : results.subList(0, results.size() - 1)) {
+                assertNotNull(result.getArtifact());
+            }
+            assertNull(results.get(results.size() - 1).getArtifact());
+            int listed = server.getRequests().size();
+            for (String request : server.getRequests()) {
+                assertFalse(request, request.endsWith(".jar") || request.endsWith(".pom"));
+            }
+
+            server.reset();
+            fileChecker.checkArtifacts(session, false, requests);
+            int checked = server.getRequests().size();
+            assertEquals(requests.size(), checked);
+            assertTrue(listed + " requests of listing vs " + checked + " existence checks", listed * 2 < checked);
+        }
+    }
+
+    @Test
+    public void trustsMetadataWithoutListings() throws Exception {
+        try (RepositoryServer server = new RepositoryServer(target).setListings(false)) {
+            RemoteRepository repository = new RemoteRepository.Builder("target", "default", server.getUrl()).build();
+            for (ArtifactResult result : checker.checkArtifacts(session, false, manyRequests(repository))) {
+                assertNotNull(result.getArtifact());
+            }
+            for (String request : server.getRequests()) {
+                assertFalse(request, request.endsWith(".jar") || request.endsWith(".pom"));
+            }
+        }
+    }
+
+    @Test
+    public void checksFilesOfUnlistedVersionsWithoutListings() throws Exception {
+        try (RepositoryServer server = new RepositoryServer(target).setListings(false)) {
+            RemoteRepository repository = new RemoteRepository.Builder("target", "default", server.getUrl()).build();
+            List<ArtifactResult> results = check(repository, "org.example:lib:jar:1.1", "org.example:lib:jar:sources:1.1", "org.example:lib:jar:1.2");
+            assertNotNull(results.get(0).getArtifact());
+            assertNull(results.get(1).getArtifact());
+            assertNull(results.get(2).getArtifact());
+            assertTrue(server.getRequests().contains("HEAD /org/example/lib/1.1/lib-1.1-sources.jar"));
+        }
+    }
+
+    private static List<ArtifactRequest> manyRequests(RemoteRepository repository) {
+        List<ArtifactRequest> requests = new ArrayList<>();
+        for (int version = 0; version < 3; version++) {
+            for (String coords : new String[]{"pom", "jar", "jar:sources", "jar:tests", "jar:javadoc"}) {
+                if (version == 0 && coords.endsWith("javadoc")) {
+                    continue;
+                }
+                Artifact artifact = new DefaultArtifact("org.example:many:" + coords + ":2." + version);
+                requests.add(new ArtifactRequest(artifact, Collections.singletonList(repository), null));
+            }
+        }
+        return requests;
+    }
+
+    private List<ArtifactResult> check(String... coords) throws ArtifactResolutionException {
+        return check(new RemoteRepository.Builder("target", "default", target.toUri().toString()).build(), coords);
+    }
+
+    private List<ArtifactResult> check(RemoteRepository repository, String... coords) throws ArtifactResolutionException {
+        List<ArtifactRequest> requests = new ArrayList<>();
+        for (String coord : coords) {
+            requests.add(new ArtifactRequest(new DefaultArtifact(coord), Collections.singletonList(repository), null));
+        }
+        List<ArtifactResult> results = checker.checkArtifacts(session, false, requests);
+        assertEquals(coords.length, results.size());
+        return results;
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = target.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private class RecordingChecker implements RepositoryArtifactChecker {
+
+        private final RepositoryArtifactChecker delegate;
+
+        RecordingChecker(RepositoryArtifactChecker delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ArtifactResult checkArtifact(RepositorySystemSession session, boolean checkLocal, ArtifactRequest request) throws ArtifactResolutionException {
+            return checkArtifacts(session, checkLocal, Collections.singleton(request)).get(0);
+        }
+
+        @Override
+        public List<ArtifactResult> checkArtifacts(RepositorySystemSession session, boolean checkLocal, Collection<? extends ArtifactRequest> requests) throws ArtifactResolutionException {
+            for (ArtifactRequest request : requests) {
+                checked.add(request.getArtifact().toString());
+            }
+            return delegate.checkArtifacts(session, checkLocal, requests);
+        }
+
+    }
+
+}
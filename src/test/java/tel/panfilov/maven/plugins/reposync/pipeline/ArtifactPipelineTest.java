@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.pipeline;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ArtifactPipelineTest {
+
+    @Test(timeout = 10000)
+    public void passesBatchesThroughStages() throws Exception {
+        List<Artifact> processed = new ArtifactPipeline(2)
+                .addStage("first", 2, artifacts -> artifacts)
+                .addStage("second", 3, artifacts -> artifacts)
+                .execute(batches(20));
+        assertEquals(20, processed.size());
+    }
+
+    @Test(timeout = 10000)
+    public void rethrowsStageFailure() throws Exception {
+        MojoExecutionException failure = new MojoExecutionException("failed");
+        try {
+            new ArtifactPipeline(1)
+                    .addStage("first", 1, artifacts -> artifacts)
+                    .addStage("second", 1, artifacts -> {
+                        throw failure;
+                    })
+                    .execute(batches(20));
+            fail("failure expected");
+        } catch (MojoExecutionException ex) {
+            assertSame(failure, ex);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void completesAndRethrowsError() throws Exception {
+        AssertionError error = new AssertionError("died");
+        try {
+            new ArtifactPipeline(1)
+                    .addStage("first", 1, artifacts -> {
+                        throw error;
+                    })
+                    .addStage("second", 1, artifacts -> artifacts)
+                    .execute(batches(20));
+            fail("error expected");
+        } catch (AssertionError ex) {
+            assertSame(error, ex);
+        }
+    }
+
+    private static List<List<Artifact>> batches(int count) {
+        List<List<Artifact>> batches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batches.add(Collections.singletonList(new DefaultArtifact("org.example:artifact:" + i)));
+        }
+        return batches;
+    }
+
+}
@@ -0,0 +1,223 @@
+/*-
+ * #%L
+ * reposync-maven-plugin
+ * %%
+ * Copyright (C) 2022 Project Contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package tel.panfilov.maven.plugins.reposync.pipeline;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.eclipse.aether.util.ChecksumUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tel.panfilov.maven.plugins.reposync.RepositoryServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingTransferTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path source;
+
+    private Path target;
+
+    private DefaultServiceLocator locator;
+
+    private DefaultRepositorySystemSession session;
+
+    private StreamingTransfer transfer;
+
+    @Before
+    public void setUp() throws Exception {
+        source = folder.newFolder("source").toPath();
+        target = folder.newFolder("target").toPath();
+
+        locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+        session = MavenRepositorySystemUtils.newSession();
+        transfer = newTransfer(repository("target", target), 16);
+    }
+
+    @Test
+    public void uploadsBodiesAndChecksums() throws Exception {
+        write(source, "org/example/lib/1.0/lib-1.0.jar", "library");
+        write(source, "org/example/lib/1.0/lib-1.0.jar.sha1", checksum("SHA-1", "library"));
+        write(source, "org/example/lib/1.0/lib-1.0-sources.jar", "sources");
+
+        List<Artifact> transferred = transfer.transfer(artifacts("org.example:lib:jar:1.0", "org.example:lib:jar:sources:1.0"));
+        assertEquals(2, transferred.size());
+        assertEquals("library", read(target, "org/example/lib/1.0/lib-1.0.jar"));
+        assertEquals(checksum("SHA-1", "library"), read(target, "org/example/lib/1.0/lib-1.0.jar.sha1"));
+        assertEquals(checksum("MD5", "library"), read(target, "org/example/lib/1.0/lib-1.0.jar.md5"));
+        assertEquals("sources", read(target, "org/example/lib/1.0/lib-1.0-sources.jar"));
+        assertEquals(checksum("SHA-1", "sources"), read(target, "org/example/lib/1.0/lib-1.0-sources.jar.sha1"));
+        assertEquals("library".length() + "sources".length(), transfer.getBytes());
+    }
+
+    @Test
+    public void skipsArtifactsFailingVerification() throws Exception {
+        write(source, "org/example/lib/1.0/lib-1.0.jar", "library");
+        write(source, "org/example/lib/1.0/lib-1.0.jar.sha1", checksum("SHA-1", "corrupted"));
+
+        assertTrue(transfer.transfer(artifacts("org.example:lib:jar:1.0")).isEmpty());
+        assertFalse(Files.exists(target.resolve("org/example/lib/1.0/lib-1.0.jar")));
+    }
+
+    @Test
+    public void skipsLargeAndMissingArtifacts() throws Exception {
+        write(source, "org/example/lib/1.0/lib-1.0.jar", "larger than sixteen bytes");
+
+        assertTrue(transfer.transfer(artifacts("org.example:lib:jar:1.0", "org.example:lib:jar:javadoc:1.0")).isEmpty());
+        assertFalse(Files.exists(target.resolve("org/example/lib/1.0/lib-1.0.jar")));
+        assertEquals(0, transfer.getBytes());
+    }
+
+    @Test
+    public void skipsPomsAndSnapshots() throws Exception {
+        write(source, "org/example/lib/1.0/lib-1.0.pom", "<project/>");
+        write(source, "org/example/lib/1.1-SNAPSHOT/lib-1.1-SNAPSHOT.jar", "snapshot");
+
+        assertFalse(StreamingTransfer.isStreamable(new DefaultArtifact("org.example:lib:pom:1.0")));
+        assertFalse(StreamingTransfer.isStreamable(new DefaultArtifact("org.example:lib:jar:1.1-SNAPSHOT")));
+        assertTrue(StreamingTransfer.isStreamable(new DefaultArtifact("org.example:lib:jar:1.0")));
+        assertTrue(transfer.transfer(artifacts("org.example:lib:pom:1.0", "org.example:lib:jar:1.1-SNAPSHOT")).isEmpty());
+        assertFalse(Files.exists(target.resolve("org/example")));
+    }
+
+    @Test(timeout = 10000)
+    public void transfersBatches() throws Exception {
+        List<List<Artifact>> batches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            write(source, "org/example/lib/1." + i + "/lib-1." + i + ".jar", "library " + i);
+            batches.add(artifacts("org.example:lib:jar:1." + i));
+        }
+        assertEquals(10, newTransfer(repository("target", target), 1024).transfer(batches, 4).size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("library " + i, read(target, "org/example/lib/1." + i + "/lib-1." + i + ".jar"));
+        }
+    }
+
+    /**
+     * Uploads are slow, so artifacts transferred concurrently are kept in memory together
+     */
+    @Test(timeout = 30000)
+    public void sharesMemoryBetweenThreads() throws Exception {
+        List<List<Artifact>> batches = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            write(source, "org/example/lib/1." + i + "/lib-1." + i + ".jar", "library " + i);
+            batches.add(artifacts("org.example:lib:jar:1." + i));
+        }
+        try (RepositoryServer server = new RepositoryServer(target).setLatency(300)) {
+            RemoteRepository repository = new RemoteRepository.Builder("target", "default", server.getUrl()).build();
+            StreamingTransfer shared = newTransfer(repository, 2 * "library 0".length());
+            List<Artifact> transferred = shared.transfer(batches, 4);
+            assertTrue(transferred.toString(), transferred.size() >= 1 && transferred.size() <= 2);
+
+            // memory is released once artifacts get uploaded
+            List<Artifact> remaining = new ArrayList<>();
+            for (List<Artifact> batch : batches) {
+                remaining.addAll(batch);
+            }
+            remaining.removeAll(transferred);
+            assertEquals(remaining, shared.transfer(Collections.singletonList(remaining), 1));
+        }
+    }
+
+    @Test
+    public void reportsTransfersToSessionListener() throws Exception {
+        write(source, "org/example/lib/1.0/lib-1.0.jar", "library");
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        session.setTransferListener(new AbstractTransferListener() {
+            @Override
+            public void transferInitiated(TransferEvent event) {
+                events.add(event.getRequestType() + " " + event.getResource().getResourceName());
+            }
+
+            @Override
+            public void transferSucceeded(TransferEvent event) {
+                events.add("done " + event.getResource().getResourceName());
+            }
+        });
+        assertEquals(1, newTransfer(repository("target", target), 16).transfer(artifacts("org.example:lib:jar:1.0")).size());
+        assertTrue(events.toString(), events.contains("GET org/example/lib/1.0/lib-1.0.jar"));
+        assertTrue(events.toString(), events.contains("PUT org/example/lib/1.0/lib-1.0.jar"));
+        assertTrue(events.toString(), events.contains("PUT org/example/lib/1.0/lib-1.0.jar.sha1"));
+        assertTrue(events.toString(), events.contains("done org/example/lib/1.0/lib-1.0.jar"));
+    }
+
+    private StreamingTransfer newTransfer(RemoteRepository target, long maxSize) {
+        return new StreamingTransfer(locator.getService(TransporterProvider.class), locator.getService(RepositoryLayoutProvider.class),
+                session, Collections.singletonList(repository("source", source)), target, maxSize, 0, new SystemStreamLog());
+    }
+
+    private static RemoteRepository repository(String id, Path path) {
+        return new RemoteRepository.Builder(id, "default", path.toUri().toString()).build();
+    }
+
+    private static List<Artifact> artifacts(String... coords) {
+        List<Artifact> artifacts = new ArrayList<>();
+        for (String coord : coords) {
+            artifacts.add(new DefaultArtifact(coord));
+        }
+        return artifacts;
+    }
+
+    private static String checksum(String algorithm, String content) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+        return ChecksumUtils.toHexString(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void write(Path repository, String path, String content) throws IOException {
+        Path file = repository.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path repository, String path) throws IOException {
+        return new String(Files.readAllBytes(repository.resolve(path)), StandardCharsets.UTF_8);
+    }
+
+}